@@ -0,0 +1,97 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.auditing.AuditingHandler;
+import org.springframework.data.auditing.CurrentDateTimeProvider;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.data.mapping.context.PersistentEntities;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.audit.AuditListener;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 10만건 저장 시 등록자 / 시간을 넣는 비용 (트랜잭션 하나 안에서)
+ * - auditingEntityListener : 기존 방식 (AuditingHandler + 엔티티마다 UUID.randomUUID() + LocalDateTime.now())
+ * - auditListener          : AuditListener (트랜잭션마다 등록자 한번 조회 + CachedClock + 직접 호출)
+ * - insertWithAuditListener : 실제 10만건 insert 전체 (위 비용이 insert 시간 중 얼마인지 비교용)
+ *
+ * 여러 스레드에서 동시에 실행하면 (@Threads) UUID.randomUUID() 의 SecureRandom 경합으로 차이가 더 커진다.
+ * 실행: ./gradlew jmh -PjmhIncludes=AuditBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditBenchmark {
+
+    static final int MEMBERS = 100_000;
+
+    ConfigurableApplicationContext context;
+    TransactionTemplate transactionTemplate;
+    AuditingHandler auditingHandler;
+    AuditListener auditListener;
+    MemberRepository memberRepository;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("audit");
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        auditListener = context.getBean(AuditListener.class);
+        memberRepository = context.getBean(MemberRepository.class);
+
+        auditingHandler = new AuditingHandler(PersistentEntities.of(context.getBean(JpaMetamodelMappingContext.class)));
+        auditingHandler.setAuditorAware(() -> Optional.of(UUID.randomUUID().toString()));
+        auditingHandler.setDateTimeProvider(CurrentDateTimeProvider.INSTANCE);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearMembers() {
+        memberRepository.deleteAllInBatch();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void auditingEntityListener(Blackhole bh) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < MEMBERS; i++) {
+                bh.consume(auditingHandler.markCreated(new Member("member" + i)));
+            }
+        });
+    }
+
+    @Benchmark
+    public void auditListener(Blackhole bh) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < MEMBERS; i++) {
+                Member member = new Member("member" + i);
+                auditListener.prePersist(member);
+                bh.consume(member);
+            }
+        });
+    }
+
+    @Benchmark
+    public int insertWithAuditListener() {
+        List<Member> members = new ArrayList<>(MEMBERS);
+        for (int i = 0; i < MEMBERS; i++) {
+            members.add(new Member("member" + i));
+        }
+        return memberRepository.saveAllBatched(members);
+    }
+}
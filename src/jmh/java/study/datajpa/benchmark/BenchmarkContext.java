@@ -0,0 +1,38 @@
+package study.datajpa.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.DataJpaApplication;
+
+/**
+ * 벤치마크용 스프링 컨텍스트
+ * - H2 인메모리 DB를 사용하기 때문에 외부 H2 서버 없이 실행된다.
+ * - SQL 로그, p6spy 는 측정값을 왜곡하기 때문에 꺼둔다.
+ * - 지연로딩 배치 조회, 2차 / 쿼리 캐시, 아웃박스 주기 실행은 application.yml 설정과 상관없이 끈다.
+ *   (켜지면 N + 1 대신 in 쿼리를, DB 조회 대신 캐시 히트를 측정하게 된다) 필요하면 extraProperties 로 켠다.
+ */
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String name, String... extraProperties) {
+        return new SpringApplicationBuilder(DataJpaApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "spring.output.ansi.enabled=never",
+                        "logging.level.root=warn",
+                        "logging.level.org.hibernate.SQL=warn",
+                        "decorator.datasource.enabled=false",
+                        "spring.jpa.properties.hibernate.default_batch_fetch_size=1",
+                        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                        "outbox.relay.enabled=false")
+                .properties(extraProperties)
+                .run();
+    }
+}
@@ -0,0 +1,71 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 100만건 회원 적재 속도 (rows/s)
+ * - saveEach        : 기존 init 처럼 save() 를 한건씩 호출 (호출마다 트랜잭션)
+ * - saveAllBatched  : pooled 시퀀스 + JDBC 배치 + 주기적 flush/clear
+ *
+ * OperationsPerInvocation 을 적재 건수로 두었기 때문에 Throughput 점수가 곧 rows/s 이다.
+ * 실행: ./gradlew jmh -PjmhIncludes=MemberBulkInsertBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class MemberBulkInsertBenchmark {
+
+    static final int ROWS = 1_000_000;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    JdbcTemplate jdbcTemplate;
+    List<Member> members;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("insert");
+        memberRepository = context.getBean(MemberRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    // 매번 비어있는 테이블, 새 엔티티에 적재한다. (준비 시간은 측정에서 빠진다)
+    @Setup(Level.Invocation)
+    public void prepare() {
+        jdbcTemplate.update("delete from member");
+        members = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            members.add(new Member("member" + i, i % 100));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void saveEach() {
+        for (Member member : members) {
+            memberRepository.save(member);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int saveAllBatched() {
+        return memberRepository.saveAllBatched(members);
+    }
+}
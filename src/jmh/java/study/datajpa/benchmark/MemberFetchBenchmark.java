@@ -0,0 +1,105 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 + 팀 조회 전략 비교
+ * - findMemberCustom + getTeam() : 지연로딩 -> N + 1
+ * - findMemberFetchJoin          : 페치 조인
+ * - findMemberEntityGraph        : JPQL + @EntityGraph
+ * - findAll                      : @EntityGraph 를 붙여 오버라이드한 findAll
+ * - findMemberDto                : DTO 로 바로 조회 (영속성 컨텍스트에 올라가지 않음)
+ *
+ * Throughput -> ops/s, SampleTime -> p99, gc 프로파일러 -> gc.alloc.rate.norm (op당 할당 바이트)
+ * 실행: ./gradlew jmh -PjmhIncludes=MemberFetchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class MemberFetchBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int memberCount;
+
+    // 팀 하나당 회원 수 -> 지연로딩에서 추가로 나가는 쿼리 수는 memberCount / membersPerTeam
+    @Param({"100"})
+    int membersPerTeam;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("fetch" + memberCount);
+        memberRepository = context.getBean(MemberRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        MemberSeeder.seed(context.getBean(JdbcTemplate.class), memberCount, membersPerTeam);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // op 마다 트랜잭션을 새로 열기 때문에 영속성 컨텍스트도 매번 비어있는 상태에서 시작한다.
+    @Benchmark
+    public void customLazyTeam(Blackhole bh) {
+        readOnly.executeWithoutResult(status -> {
+            for (Member member : memberRepository.findMemberCustom()) {
+                bh.consume(member.getTeam().getName()); // 프록시 초기화
+            }
+        });
+    }
+
+    @Benchmark
+    public void fetchJoin(Blackhole bh) {
+        readOnly.executeWithoutResult(status -> {
+            for (Member member : memberRepository.findMemberFetchJoin()) {
+                bh.consume(member.getTeam().getName());
+            }
+        });
+    }
+
+    @Benchmark
+    public void entityGraph(Blackhole bh) {
+        readOnly.executeWithoutResult(status -> {
+            for (Member member : memberRepository.findMemberEntityGraph()) {
+                bh.consume(member.getTeam().getName());
+            }
+        });
+    }
+
+    @Benchmark
+    public void findAllEntityGraph(Blackhole bh) {
+        readOnly.executeWithoutResult(status -> {
+            for (Member member : memberRepository.findAll()) {
+                bh.consume(member.getTeam().getName());
+            }
+        });
+    }
+
+    @Benchmark
+    public void memberDto(Blackhole bh) {
+        readOnly.executeWithoutResult(status -> {
+            for (MemberDto dto : memberRepository.findMemberDto()) {
+                bh.consume(dto.getTeamName());
+            }
+        });
+    }
+}
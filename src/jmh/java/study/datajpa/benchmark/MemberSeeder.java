@@ -0,0 +1,54 @@
+package study.datajpa.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 벤치마크 데이터 적재
+ * JPA 로 100만건을 넣으면 적재 시간이 측정보다 길어지기 때문에 JDBC 배치로 직접 넣는다.
+ * id 는 시퀀스와 겹치지 않도록 큰 값부터 시작한다.
+ */
+public final class MemberSeeder {
+
+    static final long ID_OFFSET = 1_000_000_000L;
+    private static final int CHUNK = 10_000;
+
+    private MemberSeeder() {
+    }
+
+    /**
+     * @param members 회원 수
+     * @param membersPerTeam 팀 하나에 속하는 회원 수 (N + 1 에서 N 은 팀 수가 된다)
+     */
+    public static void seed(JdbcTemplate jdbcTemplate, int members, int membersPerTeam) {
+        jdbcTemplate.update("delete from member");
+        jdbcTemplate.update("delete from team");
+
+        int teams = Math.max(1, members / membersPerTeam);
+        List<Object[]> rows = new ArrayList<>(CHUNK);
+        for (int i = 0; i < teams; i++) {
+            rows.add(new Object[]{ID_OFFSET + i, "team" + i});
+            if (rows.size() == CHUNK) {
+                jdbcTemplate.batchUpdate("insert into team (team_id, name, version) values (?, ?, 0)", rows);
+                rows.clear();
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("insert into team (team_id, name, version) values (?, ?, 0)", rows);
+            rows.clear();
+        }
+
+        for (int i = 0; i < members; i++) {
+            rows.add(new Object[]{ID_OFFSET + i, "member" + i, i % 100, ID_OFFSET + (i % teams)});
+            if (rows.size() == CHUNK) {
+                jdbcTemplate.batchUpdate("insert into member (member_id, username, age, team_id, version) values (?, ?, ?, ?, 0)", rows);
+                rows.clear();
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("insert into member (member_id, username, age, team_id, version) values (?, ?, ?, ?, 0)", rows);
+        }
+    }
+}
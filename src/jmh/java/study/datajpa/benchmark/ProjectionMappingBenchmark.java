@@ -0,0 +1,62 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.util.RowConstructor;
+
+import java.lang.reflect.Constructor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * row(Object[]) 100만건 -> MemberDto 매핑 비용 비교 (DB 조회 없이 매핑만 측정)
+ * - lookupEachRow     : row 마다 생성자를 찾아서 리플렉션 호출
+ * - reflection        : 생성자는 한번 찾고 Constructor.newInstance (하이버네이트 생성자 표현식 방식)
+ * - rowConstructor    : 캐시된 MethodHandle (RowConstructor)
+ *
+ * 실행: ./gradlew jmh -PjmhIncludes=ProjectionMappingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionMappingBenchmark {
+
+    static final int ROWS = 1_000_000;
+
+    Object[][] rows;
+    Constructor<MemberDto> constructor;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        rows = new Object[ROWS][];
+        for (int i = 0; i < ROWS; i++) {
+            rows[i] = new Object[]{(long) i, "member" + i, "team" + (i % 100)};
+        }
+        constructor = MemberDto.class.getConstructor(Long.class, String.class, String.class);
+    }
+
+    @Benchmark
+    public void lookupEachRow(Blackhole bh) throws Exception {
+        for (Object[] row : rows) {
+            bh.consume(MemberDto.class.getConstructor(Long.class, String.class, String.class).newInstance(row));
+        }
+    }
+
+    @Benchmark
+    public void reflection(Blackhole bh) throws Exception {
+        for (Object[] row : rows) {
+            bh.consume(constructor.newInstance(row));
+        }
+    }
+
+    @Benchmark
+    public void rowConstructor(Blackhole bh) {
+        RowConstructor<MemberDto> rowConstructor = RowConstructor.of(MemberDto.class, Long.class, String.class, String.class);
+        for (Object[] row : rows) {
+            bh.consume(rowConstructor.newInstance(row));
+        }
+    }
+}
@@ -5,11 +5,15 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import study.datajpa.audit.TransactionScopedAuditorAware;
 
-import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
-@EnableJpaAuditing
+// 엔티티 등록자 / 시간은 AuditListener 가 넣어준다. (AuditingEntityListener 를 쓰는 엔티티도 같은 시계를 사용)
+@EnableJpaAuditing(dateTimeProviderRef = "cachedClock")
+@EnableScheduling // OutboxRelayScheduler
 @SpringBootApplication
 public class DataJpaApplication {
 
@@ -20,7 +24,11 @@ public class DataJpaApplication {
 	@Bean
 	public AuditorAware<String> auditorProvider() {
 		// 지금은 랜덤값을 넣어준 것이고 실제는 실제 id 값을 넣어주면 된다.
-		return () -> Optional.of(UUID.randomUUID().toString());
+		// UUID.randomUUID() 는 SecureRandom 을 공유해서 대량 저장 시 경합이 생긴다 -> 트랜잭션마다 한번, ThreadLocalRandom 으로 생성
+		return new TransactionScopedAuditorAware(() -> {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			return new UUID(random.nextLong(), random.nextLong()).toString();
+		});
 	}
 
 }
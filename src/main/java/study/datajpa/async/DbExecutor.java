@@ -0,0 +1,107 @@
+package study.datajpa.async;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * DB 조회 전용 실행기
+ * - 스레드 수는 커넥션 풀 크기에 맞춘다. (더 많아도 커넥션을 기다리기만 한다)
+ * - 실행 중 + 대기 중인 작업이 threads + queue-capacity 를 넘으면 바로 거절한다. (DbExecutorBusyException -> 503)
+ *   요청이 몰려도 커넥션을 기다리는 작업이 끝없이 쌓이지 않는다.
+ * - virtual-threads=true 이고 Java 21 이상이면 작업마다 가상 스레드로 실행한다.
+ *   가상 스레드 실행기는 스레드 수 제한이 없기 때문에 트랜잭션(= 커넥션)을 잡는 작업 수를 따로 threads 로 제한한다.
+ * 작업은 읽기 전용 트랜잭션 안에서 실행되므로 지연로딩은 작업 안에서 끝내고 DTO 로 돌려줘야 한다.
+ */
+@Slf4j
+@Component
+public class DbExecutor {
+
+    private final ExecutorService executor;
+    private final Semaphore permits; // 받아들인 작업 (실행 중 + 대기)
+    private final Semaphore running; // 트랜잭션 안에서 실행 중인 작업
+    private final int limit;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Counter rejected;
+
+    public DbExecutor(PlatformTransactionManager transactionManager, MeterRegistry registry,
+                      @Value("${db.executor.threads}") int threads,
+                      @Value("${db.executor.queue-capacity}") int queueCapacity,
+                      @Value("${db.executor.virtual-threads}") boolean virtualThreads) {
+        this.executor = virtualThreads ? virtualThreadExecutor(threads) : platformThreadExecutor(threads);
+        this.limit = threads + queueCapacity;
+        this.permits = new Semaphore(limit);
+        this.running = new Semaphore(threads);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rejected = registry.counter("db.executor.rejected");
+        registry.gauge("db.executor.in.flight", permits, p -> limit - p.availablePermits());
+    }
+
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        if (!permits.tryAcquire()) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(new DbExecutorBusyException(limit));
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> execute(task), executor)
+                    .whenComplete((result, e) -> permits.release());
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            rejected.increment();
+            return CompletableFuture.failedFuture(new DbExecutorBusyException(limit));
+        }
+    }
+
+    private <T> T execute(Supplier<T> task) {
+        try {
+            running.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for db executor", e);
+        }
+        try {
+            return readOnlyTransaction.execute(status -> task.get());
+        } finally {
+            running.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static ExecutorService platformThreadExecutor(int threads) {
+        AtomicInteger sequence = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "db-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // 소스 레벨이 11 이라서 Java 21 API 는 리플렉션으로 호출한다.
+    private static ExecutorService virtualThreadExecutor(int threads) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.warn("virtual threads are not available on Java {}, using {} platform threads",
+                    System.getProperty("java.version"), threads);
+            return platformThreadExecutor(threads);
+        }
+    }
+}
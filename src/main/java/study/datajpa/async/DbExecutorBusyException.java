@@ -0,0 +1,15 @@
+package study.datajpa.async;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * DB 실행기 대기열이 가득 차서 작업을 받지 않았다. (잠시 후 다시 시도)
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class DbExecutorBusyException extends RuntimeException {
+
+    public DbExecutorBusyException(int limit) {
+        super("DB executor is busy (in-flight limit " + limit + ")");
+    }
+}
@@ -0,0 +1,40 @@
+package study.datajpa.audit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+
+/**
+ * AuditingEntityListener 대신 사용하는 엔티티 리스너 (EntityChangeListener 처럼 스프링 빈)
+ * - 등록자 : 트랜잭션마다 한번만 조회 (TransactionScopedAuditorAware)
+ * - 시간 : CachedClock
+ * - 필드에 값을 넣을 때 메타데이터 / 프로퍼티 접근자를 거치지 않고 엔티티 메서드를 바로 호출한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuditListener {
+
+    private final AuditorAware<String> auditorAware;
+    private final CachedClock clock;
+
+    @PrePersist
+    public void prePersist(Object entity) {
+        if (entity instanceof AuditStamped) {
+            ((AuditStamped) entity).stampCreated(auditor(), clock.now());
+        }
+    }
+
+    @PreUpdate
+    public void preUpdate(Object entity) {
+        if (entity instanceof AuditStamped) {
+            ((AuditStamped) entity).stampModified(auditor(), clock.now());
+        }
+    }
+
+    private String auditor() {
+        return auditorAware.getCurrentAuditor().orElse(null);
+    }
+}
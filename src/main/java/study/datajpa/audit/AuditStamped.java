@@ -0,0 +1,14 @@
+package study.datajpa.audit;
+
+import java.time.LocalDateTime;
+
+/**
+ * {@link AuditListener} 가 등록자 / 수정자 / 시간을 직접 넣어주는 엔티티
+ * (AuditingEntityListener 처럼 @CreatedBy 등을 리플렉션으로 찾아서 넣지 않는다)
+ */
+public interface AuditStamped {
+
+    void stampCreated(String auditor, LocalDateTime now);
+
+    void stampModified(String auditor, LocalDateTime now);
+}
@@ -0,0 +1,51 @@
+package study.datajpa.audit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.Optional;
+
+/**
+ * resolution 동안 같은 시간을 돌려주는 시계
+ * 엔티티마다 시스템 시간을 읽고 LocalDateTime 을 새로 만들지 않는다. (대신 resolution 보다 정밀한 시간은 구분하지 않는다)
+ * AuditListener 와 @EnableJpaAuditing(dateTimeProviderRef) 에서 같이 사용한다.
+ */
+@Component
+public class CachedClock implements DateTimeProvider {
+
+    private final long resolutionNanos;
+    private volatile Tick tick = new Tick(LocalDateTime.now(), System.nanoTime());
+
+    public CachedClock(@Value("${audit.clock-resolution:1ms}") Duration resolution) {
+        this.resolutionNanos = resolution.toNanos();
+    }
+
+    public LocalDateTime now() {
+        long nanoTime = System.nanoTime();
+        Tick current = tick;
+        if (nanoTime - current.expiresAt >= 0) {
+            current = new Tick(LocalDateTime.now(), nanoTime + resolutionNanos);
+            tick = current;
+        }
+        return current.now;
+    }
+
+    @Override
+    public Optional<TemporalAccessor> getNow() {
+        return Optional.of(now());
+    }
+
+    private static final class Tick {
+        private final LocalDateTime now;
+        private final long expiresAt;
+
+        private Tick(LocalDateTime now, long expiresAt) {
+            this.now = now;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package study.datajpa.audit;
+
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * 등록자 / 수정자를 트랜잭션마다 한번만 조회해서 트랜잭션이 끝날 때까지 재사용한다.
+ * 대량 저장할 때 엔티티마다 현재 사용자를 다시 조회하지 않는다. (트랜잭션 밖에서는 매번 조회)
+ */
+public class TransactionScopedAuditorAware implements AuditorAware<String> {
+
+    private final Supplier<String> resolver;
+
+    public TransactionScopedAuditorAware(Supplier<String> resolver) {
+        this.resolver = resolver;
+    }
+
+    @Override
+    public Optional<String> getCurrentAuditor() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return Optional.ofNullable(resolver.get());
+        }
+
+        String auditor = (String) TransactionSynchronizationManager.getResource(this);
+        if (auditor == null) {
+            auditor = resolver.get();
+            if (auditor == null) {
+                return Optional.empty();
+            }
+            TransactionSynchronizationManager.bindResource(this, auditor);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TransactionScopedAuditorAware.this);
+                }
+            });
+        }
+        return Optional.of(auditor);
+    }
+}
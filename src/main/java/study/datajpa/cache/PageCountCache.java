@@ -0,0 +1,155 @@
+package study.datajpa.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.event.EntityChangedEvent;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 페이징 totalCount 캐시
+ * 다음 페이지로 넘어갈 때마다 같은 count 쿼리를 다시 실행하지 않도록 (정규화한 쿼리 + 파라미터) 별로 잠깐 보관한다.
+ * - TTL 이 지나면 다시 count
+ * - 쿼리가 참조하는 엔티티가 변경되면(벌크 수정 포함) 바로 무효화
+ * - 쓰기 트랜잭션 안에서 센 count 는 캐시하지 않는다. (커밋되지 않은 변경이 다른 트랜잭션에 보이지 않도록)
+ * - count 하는 동안 참조하는 엔티티가 무효화되면 (엔티티 타입별 세대 번호가 바뀌면) 캐시하지 않는다.
+ *   (무효화 전에 시작한 count 가 무효화 뒤에 예전 값을 넣지 않도록)
+ */
+@Component
+public class PageCountCache {
+
+    private final ConcurrentMap<Key, Entry> totals = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    public PageCountCache(@Value("${paging.count-cache.ttl}") Duration ttl,
+                          @Value("${paging.count-cache.max-entries}") int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @param countQuery count 쿼리 (공백, 대소문자만 다른 쿼리는 같은 키)
+     * @param parameters 바인딩 파라미터
+     * @param dependsOn 쿼리가 참조하는 엔티티 -> 이 엔티티가 변경되면 무효화
+     * @param counter 캐시에 없을 때 실행할 count
+     */
+    public long getOrCount(String countQuery, List<?> parameters, Collection<Class<?>> dependsOn, LongSupplier counter) {
+        Key key = new Key(normalize(countQuery), parameters);
+        long now = System.nanoTime();
+
+        Entry entry = totals.get(key);
+        if (entry != null && entry.expiresAt - now > 0) {
+            return entry.total;
+        }
+
+        long[] generation = generation(dependsOn);
+        long total = counter.getAsLong();
+        if (inWritableTransaction()) {
+            return total; // 커밋 전 변경이 포함된 count 일 수 있어서 다른 트랜잭션과 공유하지 않는다.
+        }
+        if (!Arrays.equals(generation, generation(dependsOn))) {
+            return total; // count 하는 동안 변경이 커밋됐다.
+        }
+        if (totals.size() >= maxEntries) {
+            totals.values().removeIf(e -> e.expiresAt - now <= 0);
+        }
+        if (totals.size() < maxEntries) {
+            Entry created = new Entry(total, now + ttlNanos, Set.copyOf(dependsOn));
+            totals.put(key, created);
+            if (!Arrays.equals(generation, generation(dependsOn))) {
+                totals.remove(key, created); // 확인한 뒤 put 하기 전에 무효화된 경우
+            }
+        }
+        return total;
+    }
+
+    // 같은 트랜잭션 안에서 바로 다시 조회해도 변경된 count 가 보이도록 변경 즉시 무효화
+    @EventListener
+    public void onChanged(EntityChangedEvent event) {
+        invalidate(event.getEntityType());
+    }
+
+    // 커밋 전에 다른 트랜잭션이 예전 count 를 다시 캐시했을 수 있기 때문에 트랜잭션이 끝난 뒤 한번 더 무효화
+    // (롤백도 포함 -> 커밋되지 않은 변경 기준 count 가 남지 않도록)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void afterCompletion(EntityChangedEvent event) {
+        invalidate(event.getEntityType());
+    }
+
+    public void invalidate(Class<?> entityType) {
+        // 상위 타입에 의존하는 count 도 무효화되므로 상위 타입 세대도 올린다.
+        for (Class<?> type = entityType; type != null && type != Object.class; type = type.getSuperclass()) {
+            generations.computeIfAbsent(type, t -> new AtomicLong()).incrementAndGet();
+        }
+        totals.values().removeIf(entry -> entry.dependsOn.stream().anyMatch(type -> type.isAssignableFrom(entityType)));
+    }
+
+    private long[] generation(Collection<Class<?>> dependsOn) {
+        return dependsOn.stream()
+                .mapToLong(type -> generations.computeIfAbsent(type, t -> new AtomicLong()).get())
+                .toArray();
+    }
+
+    private boolean inWritableTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    public void clear() {
+        totals.clear();
+    }
+
+    static String normalize(String query) {
+        return query.trim().replaceAll("\\s+", " ").toLowerCase();
+    }
+
+    private static final class Key {
+        private final String query;
+        private final Object[] parameters;
+
+        Key(String query, List<?> parameters) {
+            this.query = query;
+            this.parameters = parameters.toArray();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return query.equals(key.query) && Arrays.equals(parameters, key.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(query, Arrays.hashCode(parameters));
+        }
+    }
+
+    private static final class Entry {
+        private final long total;
+        private final long expiresAt;
+        private final Set<Class<?>> dependsOn;
+
+        Entry(long total, long expiresAt, Set<Class<?>> dependsOn) {
+            this.total = total;
+            this.expiresAt = expiresAt;
+            this.dependsOn = dependsOn;
+        }
+    }
+}
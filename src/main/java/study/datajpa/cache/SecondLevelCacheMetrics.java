@@ -0,0 +1,60 @@
+package study.datajpa.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Team;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 2차 캐시, 쿼리 캐시 리전 hit / miss / eviction 카운터
+ * JCache 통계(monitoring.statistics)는 JMX 로 등록되기 때문에 MBean 에서 읽어서 마이크로미터로 노출한다.
+ * ex) /actuator/metrics/cache.region.gets?tag=result:hit
+ */
+@Component
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+    private static final List<String> REGIONS = List.of(Team.class.getName(), "member-projection-queries");
+
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String region : REGIONS) {
+            counter(registry, "cache.region.gets", region, "CacheHits", "hit");
+            counter(registry, "cache.region.gets", region, "CacheMisses", "miss");
+            counter(registry, "cache.region.evictions", region, "CacheEvictions", null);
+        }
+    }
+
+    private void counter(MeterRegistry registry, String name, String region, String attribute, String result) {
+        FunctionCounter.Builder<SecondLevelCacheMetrics> builder =
+                FunctionCounter.builder(name, this, metrics -> metrics.read(region, attribute))
+                        .tag("region", region);
+        if (result != null) {
+            builder.tag("result", result);
+        }
+        builder.register(registry);
+    }
+
+    // 리전은 하이버네이트가 처음 사용할 때 만들어지기 때문에 아직 없으면 0
+    double read(String region, String attribute) {
+        try {
+            Set<ObjectName> names = mBeanServer.queryNames(
+                    new ObjectName("javax.cache:type=CacheStatistics,Cache=" + region + ",*"), null);
+            double total = 0;
+            for (ObjectName name : names) {
+                total += ((Number) mBeanServer.getAttribute(name, attribute)).doubleValue();
+            }
+            return total;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package study.datajpa.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.OptionalLong;
+
+/**
+ * DB 통계 정보에서 테이블 row 수 추정치를 읽어온다.
+ * 정확한 count(*) 보다 훨씬 싸지만 값이 정확하지 않기 때문에 아주 큰 테이블의 전체 count 에만 사용한다.
+ * 추정치 쿼리는 DB 마다 다르기 때문에 설정으로 바꿀 수 있다. (기본값은 H2)
+ */
+@Component
+public class TableStatistics {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String estimateQuery;
+    private final long threshold;
+
+    public TableStatistics(JdbcTemplate jdbcTemplate,
+                           @Value("${paging.count-estimate.query}") String estimateQuery,
+                           @Value("${paging.count-estimate.threshold}") long threshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.estimateQuery = estimateQuery;
+        this.threshold = threshold;
+    }
+
+    public OptionalLong estimateRowCount(String table) {
+        try {
+            Long estimate = jdbcTemplate.queryForObject(estimateQuery, Long.class, table.toUpperCase());
+            return estimate == null ? OptionalLong.empty() : OptionalLong.of(estimate);
+        } catch (DataAccessException e) {
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * 추정치가 threshold 이상이면 추정치를, 아니면 비어있는 값을 돌려준다. (threshold 가 0 이하면 사용 안함)
+     */
+    public OptionalLong estimateIfLarge(String table) {
+        if (threshold <= 0) {
+            return OptionalLong.empty();
+        }
+        OptionalLong estimate = estimateRowCount(table);
+        if (estimate.isPresent() && estimate.getAsLong() >= threshold) {
+            return estimate;
+        }
+        return OptionalLong.empty();
+    }
+}
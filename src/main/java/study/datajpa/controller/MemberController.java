@@ -1,29 +1,57 @@
 package study.datajpa.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import study.datajpa.dto.MemberCursor;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberScrollDto;
+import study.datajpa.dto.MemberSearchCondition;
+import study.datajpa.dto.MemberSnapshot;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.AsyncMemberRepository;
 import study.datajpa.repository.MemberRepository;
 
 import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
+    private static final int MAX_SCROLL_SIZE = 2000;
+
     private final MemberRepository memberRepository;
+    private final AsyncMemberRepository asyncMemberRepository;
+    private final ObjectMapper objectMapper;
 
     @PostConstruct
     public void init() {
+        List<Member> members = new ArrayList<>();
         for (int i = 0; i < 100; i++) {
-            memberRepository.save(new Member("user" + i, i));
+            members.add(new Member("user" + i, i));
         }
+        memberRepository.saveAllBatched(members);
     }
 
     @GetMapping("/members/{id}")
@@ -39,6 +67,18 @@ public class MemberController {
         return member.getUsername();
     }
 
+    // 도메인 클래스 컨버터 대신 스냅샷 컨버터(SnapshotConverter) : 엔티티를 만들지 않고 캐시된 읽기 전용 스냅샷으로 받는다.
+    @GetMapping("/members3/{id}")
+    public String findMember3(@PathVariable("id") MemberSnapshot member) {
+        return member.getUsername();
+    }
+
+    // 여러 id 는 한번에 조회 ex) /members3?ids=1,2,3
+    @GetMapping("/members3")
+    public List<String> findMembers3(@RequestParam("ids") List<MemberSnapshot> members) {
+        return members.stream().map(MemberSnapshot::getUsername).collect(Collectors.toList());
+    }
+
     // Web 확장 : 페이징과 정렬
     // 페이지 시작은 0부터 시작한다!!!
     // ex) /members?page=1&size=3&sort=username,desc
@@ -48,4 +88,81 @@ public class MemberController {
 //        return memberRepository.findAll(pageable).map(member -> new MemberDto(member.getId(), member.getUsername(), null));
         return memberRepository.findAll(pageable).map(MemberDto::new);
     }
+
+    // 비동기 조회 : DB 조회는 DbExecutor 에서 하고 톰캣 스레드는 바로 반납한다.
+    // 실행기 대기열이 가득 차면 503 (DbExecutorBusyException)
+    @GetMapping("/async/members/{id}")
+    public CompletableFuture<String> findMemberAsync(@PathVariable("id") Long id) {
+        return asyncMemberRepository.findUsernameById(id)
+                .thenApply(username -> username.orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)));
+    }
+
+    @GetMapping("/async/members")
+    public CompletableFuture<Page<MemberDto>> listAsync(@PageableDefault(size = 5, sort = "username") Pageable pageable) {
+        return asyncMemberRepository.findAllDto(pageable);
+    }
+
+    // 회원 검색 ex) /members/search?teamName=teamA&username=member1
+    // 조건을 MemberSpec 조합으로 바꿔서 검색 (조합 구조 + 정렬 별로 렌더링해 둔 JPQL 에 값만 바인딩)
+    @GetMapping("/members/search")
+    public Page<MemberDto> search(MemberSearchCondition condition,
+                                  @PageableDefault(size = 5, sort = "username") Pageable pageable) {
+        return memberRepository.search(condition, pageable).map(MemberDto::new);
+    }
+
+    // 키셋 페이징
+    // ex) /members/scroll?size=3 -> 응답의 next 값을 /members/scroll?after={next}&size=3 으로 넘긴다.
+    // offset 페이징과 달리 깊은 페이지도 조회 비용이 같다. (대신 특정 페이지 번호로 바로 이동은 불가)
+    @GetMapping("/members/scroll")
+    public MemberScrollDto scroll(@RequestParam(value = "after", required = false) String after,
+                                  @RequestParam(value = "size", defaultValue = "20") int size) {
+        if (size < 1 || size > MAX_SCROLL_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size 는 1 ~ " + MAX_SCROLL_SIZE + " 사이여야 합니다.");
+        }
+
+        // 다음 페이지가 있는지 알기 위해 하나 더 조회한다. (count 쿼리 없음)
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<Member> members;
+        if (after == null) {
+            members = memberRepository.findKeysetFirst(limit);
+        } else {
+            MemberCursor cursor = decodeCursor(after);
+            members = memberRepository.findKeysetAfter(cursor.getUsername(), cursor.getId(), limit);
+        }
+
+        boolean hasNext = members.size() > size;
+        List<Member> page = hasNext ? members.subList(0, size) : members;
+        String next = hasNext ? MemberCursor.of(page.get(page.size() - 1)).encode() : null;
+
+        List<MemberDto> content = page.stream().map(MemberDto::new).collect(Collectors.toList());
+        return new MemberScrollDto(content, next);
+    }
+
+    private MemberCursor decodeCursor(String after) {
+        try {
+            return MemberCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "잘못된 after 값입니다.", e);
+        }
+    }
+
+    // 회원 전체 내보내기 (NDJSON : 한 줄에 회원 하나)
+    // DB 커서에서 읽은 회원을 바로 응답 스트림에 쓰기 때문에 건수가 늘어도 힙 사용량이 늘지 않는다.
+    // 스트림을 다 읽을 때까지 커서가 열려 있어야 하므로 트랜잭션을 요청 전체에 건다.
+    @Transactional(readOnly = true)
+    @GetMapping(value = "/members/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void export(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+
+        try (Stream<MemberDto> members = memberRepository.streamMemberDto();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            Iterator<MemberDto> iterator = members.iterator();
+            while (iterator.hasNext()) {
+                generator.writeObject(iterator.next());
+            }
+            generator.writeRaw('\n');
+        }
+    }
 }
@@ -0,0 +1,74 @@
+package study.datajpa.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * datasource.routing.enabled=true 이면 읽기 전용 트랜잭션을 replica 로 보낸다.
+ * 호출하는 쪽은 @Transactional(readOnly = true) 만 붙이면 되고 코드를 바꿀 필요가 없다.
+ * (스프링 데이터 JPA 의 findAll, findById 등은 기본으로 readOnly 트랜잭션)
+ * 커넥션 풀 설정(spring.datasource.hikari.*)은 primary 와 replica 모두에 그대로 적용한다.
+ * (db.executor.threads 등 풀 크기에 맞춘 설정이 라우팅을 켜도 같은 값을 보도록)
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(DataSourceRoutingProperties.class)
+public class DataSourceRoutingConfig {
+
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    @Bean
+    @ConfigurationProperties(HIKARI_PREFIX)
+    public HikariDataSource primaryDataSource(DataSourceProperties primaryProperties) {
+        return primaryProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicationRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                         DataSourceRoutingProperties routingProperties,
+                                                         Environment environment) {
+        Binder binder = Binder.get(environment);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<DataSourceRoutingProperties.Replica> replicaProperties = routingProperties.getReplicas();
+        for (int i = 0; i < replicaProperties.size(); i++) {
+            DataSourceRoutingProperties.Replica replica = replicaProperties.get(i);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .driverClassName(replica.getDriverClassName())
+                    .build();
+            // 목록이라 @ConfigurationProperties 를 붙일 수 없어서 같은 prefix 를 직접 바인딩한다.
+            binder.bind(HIKARI_PREFIX, Bindable.ofInstance(dataSource));
+            dataSource.setPoolName("replica-" + i);
+            replicas.put("replica-" + i, dataSource);
+        }
+
+        ReplicaSelector replicaSelector = new ReplicaSelector(replicas, routingProperties.getMaxLag(), routingProperties.getLagQuery());
+        replicaSelector.start(routingProperties.getHealthCheckInterval());
+        return new ReplicationRoutingDataSource(primaryDataSource, replicaSelector);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicationRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
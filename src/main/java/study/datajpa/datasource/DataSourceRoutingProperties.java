@@ -0,0 +1,40 @@
+package study.datajpa.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 읽기 / 쓰기 DataSource 분리 설정
+ * primary 는 spring.datasource 를 그대로 사용하고 replica 만 여기에 추가한다.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datasource.routing")
+public class DataSourceRoutingProperties {
+
+    private boolean enabled;
+
+    // replica 지연이 이 값보다 크면 사용하지 않는다.
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    // replica 에서 실행할 지연(초) 조회 쿼리, 없으면 커넥션이 살아있는지만 확인
+    private String lagQuery;
+
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+    }
+}
@@ -0,0 +1,117 @@
+package study.datajpa.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 사용할 replica 선택
+ * - 주기적으로 replica 상태(지연)를 확인하고, 정상인 replica 중에서 돌아가면서 선택한다.
+ * - 정상인 replica 가 없으면 null -> primary 사용
+ */
+@Slf4j
+public class ReplicaSelector implements AutoCloseable {
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMillis;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+    private ScheduledExecutorService scheduler;
+
+    public ReplicaSelector(Map<String, DataSource> replicas, Duration maxLag, String lagQuery) {
+        replicas.forEach((key, dataSource) -> this.replicas.add(new Replica(key, dataSource)));
+        this.maxLagMillis = maxLag.toMillis();
+        this.lagQuery = lagQuery;
+        refresh();
+    }
+
+    public void start(Duration interval) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refresh, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public String select() {
+        List<Replica> healthy = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                healthy.add(replica);
+            }
+        }
+        if (healthy.isEmpty()) {
+            return null;
+        }
+        return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size())).key;
+    }
+
+    public void refresh() {
+        for (Replica replica : replicas) {
+            boolean healthy = check(replica);
+            if (healthy != replica.healthy) {
+                log.info("replica {} healthy={}", replica.key, healthy);
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    private boolean check(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            if (lagQuery == null) {
+                return connection.isValid(1);
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                return resultSet.next() && resultSet.getDouble(1) * 1000 <= maxLagMillis;
+            }
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    Map<String, DataSource> dataSources() {
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        for (Replica replica : replicas) {
+            dataSources.put(replica.key, replica.dataSource);
+        }
+        return dataSources;
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable) {
+                ((AutoCloseable) replica.dataSource).close();
+            }
+        }
+    }
+
+    private static final class Replica {
+        private final String key;
+        private final DataSource dataSource;
+        private volatile boolean healthy;
+
+        Replica(String key, DataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package study.datajpa.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @Transactional(readOnly = true) 트랜잭션이면 replica, 아니면 primary 로 보낸다.
+ * 트랜잭션 시작 시점에는 아직 readOnly 여부가 동기화되지 않기 때문에
+ * 반드시 LazyConnectionDataSourceProxy 로 감싸서 실제 쿼리를 실행할 때 커넥션을 고르게 해야 한다.
+ */
+public class ReplicationRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final ReplicaSelector replicaSelector;
+
+    public ReplicationRoutingDataSource(DataSource primary, ReplicaSelector replicaSelector) {
+        this.primary = primary;
+        this.replicaSelector = replicaSelector;
+
+        Map<Object, Object> targets = new HashMap<>(replicaSelector.dataSources());
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            String replica = replicaSelector.select();
+            if (replica != null) {
+                return replica;
+            }
+        }
+        return PRIMARY;
+    }
+
+    @Override
+    public void close() throws Exception {
+        replicaSelector.close();
+        if (primary instanceof AutoCloseable) {
+            ((AutoCloseable) primary).close();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+import study.datajpa.entity.Member;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 키셋 페이징 커서 (username, member_id)
+ * 클라이언트에는 내부 구조를 드러내지 않도록 base64 로 인코딩한 토큰만 내려준다.
+ */
+@Getter
+public class MemberCursor {
+
+    private static final char SEPARATOR = ':';
+
+    private final Long id;
+    private final String username;
+
+    public MemberCursor(Long id, String username) {
+        this.id = id;
+        this.username = username;
+    }
+
+    public static MemberCursor of(Member member) {
+        return new MemberCursor(member.getId(), member.getUsername());
+    }
+
+    public String encode() {
+        String raw = id + String.valueOf(SEPARATOR) + username;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException 잘못된 토큰
+     */
+    public static MemberCursor decode(String token) {
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int index = raw.indexOf(SEPARATOR);
+        if (index < 0) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + token);
+        }
+        // username 에 ':' 이 들어가도 되도록 id 를 앞에 둔다.
+        return new MemberCursor(Long.valueOf(raw.substring(0, index)), raw.substring(index + 1));
+    }
+}
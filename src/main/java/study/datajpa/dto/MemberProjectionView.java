@@ -0,0 +1,36 @@
+package study.datajpa.dto;
+
+import study.datajpa.repository.MemberProjection;
+
+/**
+ * MemberProjection 구현 클래스
+ * 네이티브 쿼리 + 인터페이스 프로젝션은 row 마다 Map 을 감싼 프록시를 만들기 때문에,
+ * 같은 조회를 JPQL 생성자 표현식으로 바로 받는다.
+ */
+public class MemberProjectionView implements MemberProjection {
+
+    private final Long id;
+    private final String username;
+    private final String teamName;
+
+    public MemberProjectionView(Long id, String username, String teamName) {
+        this.id = id;
+        this.username = username;
+        this.teamName = teamName;
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getTeamName() {
+        return teamName;
+    }
+}
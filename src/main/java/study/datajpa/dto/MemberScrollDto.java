@@ -0,0 +1,23 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 키셋 페이징 응답
+ * totalCount 가 없는 대신 다음 페이지를 요청할 때 사용할 next 토큰을 내려준다.
+ */
+@Getter
+public class MemberScrollDto {
+
+    private final List<MemberDto> content;
+    private final String next;
+    private final boolean hasNext;
+
+    public MemberScrollDto(List<MemberDto> content, String next) {
+        this.content = content;
+        this.next = next;
+        this.hasNext = next != null;
+    }
+}
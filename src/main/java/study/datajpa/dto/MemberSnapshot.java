@@ -0,0 +1,25 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 읽기 전용 회원 스냅샷 (MemberSnapshotLoader 가 캐시)
+ * 도메인 클래스 컨버터처럼 경로의 id 로 바로 받을 수 있지만 영속성 컨텍스트에 올라가는 엔티티가 아니다.
+ */
+@Getter
+@ToString
+public class MemberSnapshot {
+
+    private final Long id;
+    private final String username;
+    private final int age;
+    private final String teamName;
+
+    public MemberSnapshot(Long id, String username, int age, String teamName) {
+        this.id = id;
+        this.username = username;
+        this.age = age;
+        this.teamName = teamName;
+    }
+}
@@ -0,0 +1,36 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 조건부 GET 검증용 값 (엔티티 전체 대신 id, version, lastModifiedDate 만 조회)
+ * version 은 수정할 때마다 올라가기 때문에 ETag 로 쓰고, lastModifiedDate 는 Last-Modified 헤더로 쓴다.
+ */
+@Getter
+public class MemberValidator {
+
+    private final Long id;
+    private final Long version;
+    private final LocalDateTime lastModifiedDate;
+
+    public MemberValidator(Long id, Long version, LocalDateTime lastModifiedDate) {
+        this.id = id;
+        this.version = version;
+        this.lastModifiedDate = lastModifiedDate;
+    }
+
+    public String etag() {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    // 모르면 -1 (Last-Modified 없이 ETag 로만 비교)
+    public long lastModifiedMillis() {
+        if (lastModifiedDate == null) {
+            return -1;
+        }
+        return lastModifiedDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
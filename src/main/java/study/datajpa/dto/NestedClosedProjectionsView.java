@@ -0,0 +1,43 @@
+package study.datajpa.dto;
+
+import study.datajpa.repository.NestedClosedProjections;
+
+/**
+ * NestedClosedProjections 구현 클래스
+ * 프록시 대신 필요한 컬럼(username, team.name)만 조회해서 생성자로 받는다.
+ * (인터페이스 프로젝션은 중첩 대상인 team 을 엔티티 전체로 조회한다)
+ */
+public class NestedClosedProjectionsView implements NestedClosedProjections {
+
+    private final String username;
+    private final TeamInfoView team;
+
+    public NestedClosedProjectionsView(String username, String teamName) {
+        this.username = username;
+        this.team = teamName == null ? null : new TeamInfoView(teamName);
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public TeamInfoView getTeam() {
+        return team;
+    }
+
+    public static class TeamInfoView implements TeamInfo {
+
+        private final String name;
+
+        public TeamInfoView(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+}
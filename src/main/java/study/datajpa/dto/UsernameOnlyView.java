@@ -0,0 +1,24 @@
+package study.datajpa.dto;
+
+import study.datajpa.repository.UsernameOnly;
+
+/**
+ * UsernameOnly 구현 클래스
+ * Open Projection(@Value SpEL)은 엔티티를 전부 조회한 다음 row 마다 프록시를 만들고 SpEL 을 평가한다.
+ * 대신 계산식을 SELECT 절로 내려서 DB 에서 계산하고, 그 결과를 이 클래스 생성자로 바로 받는다.
+ * 직접 작성한 구현 클래스라서 이 클래스를 쓰는 쿼리(findUsernameOnlyViewByUsername)에만 적용된다.
+ * (UsernameOnly 를 반환하는 기존 메소드는 그대로 프록시 + SpEL)
+ */
+public class UsernameOnlyView implements UsernameOnly {
+
+    private final String username;
+
+    public UsernameOnlyView(String username) {
+        this.username = username;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+}
@@ -5,17 +5,20 @@ import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
 import org.springframework.data.annotation.LastModifiedDate;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import study.datajpa.audit.AuditListener;
+import study.datajpa.audit.AuditStamped;
 
 import javax.persistence.Column;
 import javax.persistence.EntityListeners;
 import javax.persistence.MappedSuperclass;
 import java.time.LocalDateTime;
 
-@EntityListeners(AuditingEntityListener.class)
+// AuditingEntityListener 대신 AuditListener : 값은 같고 엔티티마다 리플렉션으로 필드를 찾지 않는다.
+// (@CreatedDate 등은 어떤 값인지 표시용으로 남겨둠)
+@EntityListeners(AuditListener.class)
 @MappedSuperclass
 @Getter
-public class BaseEntity {
+public class BaseEntity implements AuditStamped {
 
     @CreatedDate
     @Column(updatable = false)
@@ -30,4 +33,19 @@ public class BaseEntity {
 
     @LastModifiedBy
     private String lastModifiedBy;
+
+    // 등록할 때 수정자 / 수정일도 같이 채운다. (AuditingEntityListener 의 modifyOnCreate 와 동일)
+    @Override
+    public void stampCreated(String auditor, LocalDateTime now) {
+        createdDate = now;
+        createdBy = auditor;
+        lastModifiedDate = now;
+        lastModifiedBy = auditor;
+    }
+
+    @Override
+    public void stampModified(String auditor, LocalDateTime now) {
+        lastModifiedDate = now;
+        lastModifiedBy = auditor;
+    }
 }
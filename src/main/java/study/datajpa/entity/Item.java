@@ -4,7 +4,9 @@ import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.domain.Persistable;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import study.datajpa.audit.AuditListener;
+import study.datajpa.audit.AuditStamped;
+import study.datajpa.util.TimeOrderedIdGenerator;
 
 import javax.persistence.Entity;
 import javax.persistence.EntityListeners;
@@ -13,9 +15,9 @@ import javax.persistence.Id;
 import java.time.LocalDateTime;
 
 @Entity
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners(AuditListener.class)
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-public class Item implements Persistable<String> {
+public class Item implements Persistable<String>, AuditStamped {
 
     // @GeneratedValue는 persist() 하는 순간에 만들어진다. (그 전까지는 Id 생성 안함)
     @Id
@@ -29,6 +31,11 @@ public class Item implements Persistable<String> {
         this.id = id;
     }
 
+    // 시간 순서로 증가하는 id -> 대량 insert 에도 PK 인덱스 끝에만 추가된다.
+    public static Item create() {
+        return new Item(TimeOrderedIdGenerator.generate());
+    }
+
     @Override
     public String getId() {
         return id;
@@ -38,4 +45,13 @@ public class Item implements Persistable<String> {
     public boolean isNew() {
         return createdDate == null;
     }
+
+    @Override
+    public void stampCreated(String auditor, LocalDateTime now) {
+        createdDate = now;
+    }
+
+    @Override
+    public void stampModified(String auditor, LocalDateTime now) {
+    }
 }
@@ -1,12 +1,25 @@
 package study.datajpa.entity;
 
 import lombok.*;
+import study.datajpa.event.EntityChangeListener;
 
 import javax.persistence.*;
 
 
 
+/**
+ * 인덱스 : 회원 조회는 대부분 username, age 로 찾는다. (MemberQueryPlanTest 에서 실행 계획으로 검증)
+ * - username, age : findByUsername, findByUsernameAndAgeGreaterThan, findLockByUsername, findByNames
+ * - age, username : findByPage (where age = ? order by username desc), totalCount, bulkAgePlus (where age >= ?, 대상이 적을 때)
+ * - username, member_id : 키셋 페이징 (findKeysetFirst, findKeysetAfter 의 order by username, id)
+ */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_member_username_age", columnList = "username, age"),
+        @Index(name = "idx_member_age_username", columnList = "age, username"),
+        @Index(name = "idx_member_username_id", columnList = "username, member_id")
+})
+@EntityListeners(EntityChangeListener.class)
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -22,10 +35,18 @@ import javax.persistence.*;
 )
 public class Member extends BaseEntity{
 
+    // pooled 시퀀스 : 시퀀스를 한번 호출할 때 50개씩 id 를 확보해서 insert 마다 시퀀스를 조회하지 않는다.
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50)
     @Column(name = "member_id")
     private Long id;
+
+    // 낙관적 락 : 수정할 때 where version = ? 로 확인해서 그 사이 다른 트랜잭션이 수정했으면 실패한다.
+    // (실패하면 @RetryOnOptimisticLock 으로 다시 실행)
+    @Version
+    private Long version;
+
     private String username;
     private int age;
 
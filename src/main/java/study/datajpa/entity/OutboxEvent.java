@@ -0,0 +1,36 @@
+package study.datajpa.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import study.datajpa.event.EntityChangedEvent;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 아웃박스 : 엔티티 변경 내역을 변경과 같은 트랜잭션에서 기록해두고, OutboxRelay 가 꺼내서 외부로 전달한다.
+ * 쓰기 / 읽기 모두 JdbcTemplate 으로 한다. (엔티티는 테이블 생성용)
+ * 전달한 row 는 바로 삭제하기 때문에 테이블에는 아직 전달하지 못한 이벤트만 남는다.
+ */
+@Entity
+// created_at : outbox.lag 게이지가 매 실행마다 min(created_at) 을 읽는다.
+@Table(name = "outbox_event", indexes = @Index(name = "idx_outbox_event_created_at", columnList = "created_at"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OutboxEvent {
+
+    // id 순서 = 기록 순서 -> 같은 엔티티(aggregate)의 이벤트는 id 순서대로 전달한다.
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String aggregateType;
+    private String aggregateId; // 벌크 수정이면 null (해당 타입 전체가 변경 대상)
+
+    @Enumerated(EnumType.STRING)
+    private EntityChangedEvent.Type eventType;
+
+    private String source;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,23 @@
+package study.datajpa.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * OutboxRelay 리더 잠금 : 이 row 를 잠근 노드 하나만 outbox_event 를 전달한다.
+ * 쓰기 / 읽기 모두 JdbcTemplate 으로 한다. (엔티티는 테이블 생성용)
+ */
+@Entity
+@Table(name = "outbox_relay_lock")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OutboxRelayLock {
+
+    @Id
+    private String name;
+}
@@ -1,22 +1,41 @@
 package study.datajpa.entity;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import study.datajpa.event.EntityChangeListener;
 
 import javax.persistence.*;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * 2차 캐시 : 팀은 회원을 조회할 때마다 함께 필요하지만 거의 바뀌지 않기 때문에 캐시한다.
+ * (지연로딩 프록시 초기화, em.find 는 캐시에서 꺼내고 DB 를 조회하지 않는다)
+ * 인덱스 : 팀 이름으로 회원을 검색할 때 (MemberSearchRepository, MemberSpec.teamName)
+ */
 @Entity
+@Table(indexes = @Index(name = "idx_team_name", columnList = "name"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners(EntityChangeListener.class)
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
 public class Team extends BaseEntity{
 
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq_generator")
+    @SequenceGenerator(name = "team_seq_generator", sequenceName = "team_seq", allocationSize = 50)
     @Column(name = "team_id")
     private Long id;
+
+    @Version
+    private Long version;
+
     private String name;
 
+    // default_batch_fetch_size : 팀 목록의 members 를 초기화할 때 팀마다 쿼리하지 않고 in 절로 묶어서 조회
     @OneToMany(mappedBy = "team")
     private List<Member> members = new ArrayList<>();
 
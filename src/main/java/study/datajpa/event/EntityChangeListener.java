@@ -0,0 +1,36 @@
+package study.datajpa.event;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * JPA 엔티티 리스너 -> 스프링 이벤트
+ * 스프링 부트가 하이버네이트에 SpringBeanContainer 를 설정해주기 때문에
+ * 엔티티 리스너도 스프링 빈으로 만들어지고 주입을 받을 수 있다.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityChangeListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    @PostPersist
+    public void postPersist(Object entity) {
+        publisher.publishEvent(EntityChangedEvent.of(entity, EntityChangedEvent.Type.CREATED));
+    }
+
+    @PostUpdate
+    public void postUpdate(Object entity) {
+        publisher.publishEvent(EntityChangedEvent.of(entity, EntityChangedEvent.Type.UPDATED));
+    }
+
+    @PostRemove
+    public void postRemove(Object entity) {
+        publisher.publishEvent(EntityChangedEvent.of(entity, EntityChangedEvent.Type.DELETED));
+    }
+}
@@ -0,0 +1,43 @@
+package study.datajpa.event;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 엔티티 변경 이벤트
+ * - 엔티티 단건 변경 : JPA 엔티티 리스너({@link EntityChangeListener})가 발행
+ * - 벌크 수정 : 영속성 컨텍스트를 거치지 않기 때문에 벌크 쿼리를 실행한 쪽에서 직접 발행
+ * 캐시 무효화 등 "데이터가 바뀌었다" 는 사실이 필요한 곳에서 구독한다.
+ */
+@Getter
+@ToString(of = {"entityType", "type", "source"})
+public class EntityChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, BULK_UPDATED
+    }
+
+    private final Class<?> entityType;
+    private final Type type;
+    private final Object entity; // 벌크 수정이면 null
+    private final String source; // 벌크 수정을 실행한 메서드
+
+    private EntityChangedEvent(Class<?> entityType, Type type, Object entity, String source) {
+        this.entityType = entityType;
+        this.type = type;
+        this.entity = entity;
+        this.source = source;
+    }
+
+    public static EntityChangedEvent of(Object entity, Type type) {
+        return new EntityChangedEvent(entity.getClass(), type, entity, null);
+    }
+
+    public static EntityChangedEvent bulk(Class<?> entityType, String source) {
+        return new EntityChangedEvent(entityType, Type.BULK_UPDATED, null, source);
+    }
+
+    public boolean isBulk() {
+        return type == Type.BULK_UPDATED;
+    }
+}
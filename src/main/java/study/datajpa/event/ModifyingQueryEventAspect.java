@@ -0,0 +1,43 @@
+package study.datajpa.event;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+/**
+ * 스프링 데이터 JPA 의 @Modifying 벌크 쿼리는 영속성 컨텍스트를 거치지 않기 때문에 엔티티 리스너가 호출되지 않는다.
+ * 그래서 @Modifying 메서드가 끝나면 벌크 변경 이벤트를 발행해준다.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ModifyingQueryEventAspect {
+
+    private final ApplicationEventPublisher publisher;
+
+    @AfterReturning("@annotation(org.springframework.data.jpa.repository.Modifying)")
+    public void afterModifying(JoinPoint joinPoint) {
+        Class<?> domainType = domainType(joinPoint.getTarget());
+        if (domainType != null) {
+            publisher.publishEvent(EntityChangedEvent.bulk(domainType, joinPoint.getSignature().toShortString()));
+        }
+    }
+
+    // MemberRepository extends JpaRepository<Member, Long> -> Member
+    private Class<?> domainType(Object repository) {
+        for (Class<?> repositoryInterface : repository.getClass().getInterfaces()) {
+            if (Repository.class.isAssignableFrom(repositoryInterface)) {
+                Class<?>[] typeArguments = GenericTypeResolver.resolveTypeArguments(repositoryInterface, Repository.class);
+                if (typeArguments != null) {
+                    return typeArguments[0];
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,104 @@
+package study.datajpa.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * 리포지토리 메서드별 메트릭
+ * - repository.invocations : 실행 시간 (p50, p95, p99)
+ * - repository.rows : 반환한 row 수
+ * - repository.statements : 호출 한번에 실행된 JDBC 쿼리 수 -> N + 1 찾기
+ * ex) /actuator/metrics/repository.statements?tag=repository:MemberRepository&tag=method:findMemberCustom
+ *
+ * 스프링 데이터 리포지토리(쿼리 메서드, @Query, 사용자 정의 구현 포함)와 @Repository 클래스 모두 대상이다.
+ * 지연로딩처럼 리포지토리 호출이 끝난 뒤에 실행되는 쿼리, 커밋 시점 flush 쿼리는 포함되지 않는다.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryMetricsAspect {
+
+    private final MeterRegistry registry;
+
+    @Around("this(org.springframework.data.repository.Repository)" +
+            " || @within(org.springframework.stereotype.Repository)")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = repositoryName(joinPoint.getTarget());
+        String method = joinPoint.getSignature().getName();
+
+        StatementCounter.Snapshot statements = StatementCounter.snapshot();
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "success";
+        try {
+            Object result = joinPoint.proceed();
+            long rows = rows(result);
+            if (rows >= 0) {
+                summary("repository.rows", "rows", repository, method).record(rows);
+            }
+            return result;
+        } catch (Throwable e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("repository.invocations")
+                    .tags("repository", repository, "method", method, "outcome", outcome)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(registry));
+            summary("repository.statements", "statements", repository, method).record(statements.sinceTotal());
+        }
+    }
+
+    private DistributionSummary summary(String name, String unit, String repository, String method) {
+        return DistributionSummary.builder(name)
+                .baseUnit(unit)
+                .tags("repository", repository, "method", method)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+
+    // 스프링 데이터 리포지토리는 JDK 프록시라서 클래스 이름 대신 리포지토리 인터페이스 이름을 쓴다.
+    private String repositoryName(Object target) {
+        if (Proxy.isProxyClass(target.getClass())) {
+            for (Class<?> type : target.getClass().getInterfaces()) {
+                if (Repository.class.isAssignableFrom(type)) {
+                    return type.getSimpleName();
+                }
+            }
+        }
+        return ClassUtils.getUserClass(target).getSimpleName();
+    }
+
+    // 알 수 없으면 -1 (Stream 은 아직 읽지 않았고, 숫자는 count / 수정 건수라서 제외)
+    private long rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        if (result instanceof Stream || result instanceof Number || result instanceof Boolean) {
+            return -1;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,88 @@
+package study.datajpa.monitoring;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 스레드별 JDBC 실행 횟수
+ * p6spy 리스너({@link StatementCountingListener})가 실행할 때마다 올려주고,
+ * 리포지토리 메트릭이나 테스트에서 호출 전후 값을 비교해서 "이 호출이 쿼리를 몇 번 실행했는지" 를 구한다.
+ * 배치 실행(executeBatch)은 DB 왕복 한번으로 센다.
+ */
+public final class StatementCounter {
+
+    private static final ThreadLocal<long[]> COUNTS = ThreadLocal.withInitial(() -> new long[StatementType.values().length]);
+    private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+
+    private StatementCounter() {
+    }
+
+    static void increment(StatementType type) {
+        COUNTS.get()[type.ordinal()]++;
+    }
+
+    static boolean isRecording() {
+        return RECORDED.get() != null;
+    }
+
+    static void record(String sql) {
+        List<String> recorded = RECORDED.get();
+        if (recorded != null) {
+            recorded.add(sql);
+        }
+    }
+
+    public static long total() {
+        long total = 0;
+        for (long count : COUNTS.get()) {
+            total += count;
+        }
+        return total;
+    }
+
+    public static long count(StatementType type) {
+        return COUNTS.get()[type.ordinal()];
+    }
+
+    public static Snapshot snapshot() {
+        return new Snapshot(COUNTS.get().clone());
+    }
+
+    /**
+     * 현재 스레드에서 실행된 SQL 을 기록하기 시작한다. (테스트에서 실패 원인을 보여줄 때 사용)
+     * 운영에서 계속 켜두면 메모리가 계속 늘어나기 때문에 반드시 stopRecording 을 호출해야 한다.
+     */
+    public static void startRecording() {
+        RECORDED.set(new ArrayList<>());
+    }
+
+    public static List<String> stopRecording() {
+        List<String> recorded = RECORDED.get();
+        RECORDED.remove();
+        return recorded == null ? List.of() : Collections.unmodifiableList(recorded);
+    }
+
+    /**
+     * 특정 시점의 횟수 -> 이후 다른 시점과 비교
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+
+        private Snapshot(long[] counts) {
+            this.counts = counts;
+        }
+
+        public long since(StatementType type) {
+            return COUNTS.get()[type.ordinal()] - counts[type.ordinal()];
+        }
+
+        public long sinceTotal() {
+            long total = 0;
+            for (StatementType type : StatementType.values()) {
+                total += since(type);
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package study.datajpa.monitoring;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+/**
+ * p6spy 로 감싼 DataSource 에서 SQL 이 실행될 때마다 호출된다.
+ * (p6spy-spring-boot-starter 가 JdbcEventListener 빈을 자동으로 등록)
+ * 분류는 바인딩 전 SQL 로 하고, 값을 채운 SQL 은 기록 중(테스트)일 때만 만든다.
+ */
+@Component
+public class StatementCountingListener extends SimpleJdbcEventListener {
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        StatementCounter.increment(StatementType.of(statementInformation.getSql()));
+        if (StatementCounter.isRecording()) {
+            String sql = statementInformation.getSqlWithValues();
+            if (sql == null || sql.isEmpty()) {
+                sql = statementInformation.getSql();
+            }
+            StatementCounter.record(sql == null ? "" : sql);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package study.datajpa.monitoring;
+
+public enum StatementType {
+    SELECT, INSERT, UPDATE, DELETE, OTHER;
+
+    // 모든 JDBC 실행마다 호출되기 때문에 SQL 전체를 복사(trim, 소문자 변환)하지 않고 첫 단어만 비교한다.
+    public static StatementType of(String sql) {
+        if (sql == null) {
+            return OTHER;
+        }
+        int start = 0;
+        while (start < sql.length() && Character.isWhitespace(sql.charAt(start))) {
+            start++;
+        }
+        if (startsWith(sql, start, "select") || startsWith(sql, start, "with")) {
+            return SELECT;
+        }
+        if (startsWith(sql, start, "insert") || startsWith(sql, start, "merge")) {
+            return INSERT;
+        }
+        if (startsWith(sql, start, "update")) {
+            return UPDATE;
+        }
+        if (startsWith(sql, start, "delete")) {
+            return DELETE;
+        }
+        return OTHER;
+    }
+
+    private static boolean startsWith(String sql, int offset, String keyword) {
+        return sql.regionMatches(true, offset, keyword, 0, keyword.length());
+    }
+}
@@ -0,0 +1,36 @@
+package study.datajpa.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * 애플리케이션 안에서만 받는 기본 sink (테스트, 로컬용)
+ * 최근 capacity 개만 보관한다. 외부로 보내려면 OutboxSink 를 구현한 빈으로 바꾸면 된다.
+ */
+@Component
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final int capacity;
+    private final Deque<OutboxMessage> messages = new ArrayDeque<>();
+
+    public InMemoryOutboxSink(@Value("${outbox.in-memory-sink.capacity:1000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void send(OutboxMessage message) {
+        if (messages.size() >= capacity) {
+            messages.removeFirst();
+        }
+        messages.addLast(message);
+    }
+
+    public synchronized List<OutboxMessage> messages() {
+        return new ArrayList<>(messages);
+    }
+}
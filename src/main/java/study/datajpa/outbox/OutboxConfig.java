@@ -0,0 +1,16 @@
+package study.datajpa.outbox;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer outboxFlushInterceptor(ObjectProvider<OutboxWriter> outboxWriter) {
+        return properties -> properties.put(AvailableSettings.INTERCEPTOR, new OutboxFlushInterceptor(outboxWriter));
+    }
+}
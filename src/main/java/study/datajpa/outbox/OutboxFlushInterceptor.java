@@ -0,0 +1,35 @@
+package study.datajpa.outbox;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.Transaction;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.Iterator;
+
+/**
+ * 하이버네이트 flush 가 끝날 때마다 OutboxWriter 가 모아둔 이벤트를 기록한다.
+ * (커밋 시점 flush 도 포함 -> 커밋 직전에 변경 감지로 생긴 이벤트도 같은 트랜잭션에 기록된다)
+ * 세션 팩토리에 하나만 등록되기 때문에 상태는 OutboxWriter 의 ThreadLocal 에 둔다.
+ */
+public class OutboxFlushInterceptor extends EmptyInterceptor {
+
+    // EntityManagerFactory 를 만들 때 등록되므로 OutboxWriter(EntityManagerFactory 필요)는 나중에 꺼낸다.
+    private final ObjectProvider<OutboxWriter> writer;
+
+    public OutboxFlushInterceptor(ObjectProvider<OutboxWriter> writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void postFlush(Iterator entities) {
+        writer.getObject().flushPending();
+    }
+
+    @Override
+    public void afterTransactionCompletion(Transaction tx) {
+        OutboxWriter outboxWriter = writer.getIfAvailable();
+        if (outboxWriter != null) {
+            outboxWriter.discardPending();
+        }
+    }
+}
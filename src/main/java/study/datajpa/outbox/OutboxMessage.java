@@ -0,0 +1,32 @@
+package study.datajpa.outbox;
+
+import lombok.Getter;
+import lombok.ToString;
+import study.datajpa.event.EntityChangedEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * OutboxSink 로 전달되는 이벤트 (outbox_event row 하나)
+ */
+@Getter
+@ToString
+public class OutboxMessage {
+
+    private final long id;
+    private final String aggregateType;
+    private final String aggregateId;
+    private final EntityChangedEvent.Type eventType;
+    private final String source;
+    private final LocalDateTime createdAt;
+
+    public OutboxMessage(long id, String aggregateType, String aggregateId,
+                         EntityChangedEvent.Type eventType, String source, LocalDateTime createdAt) {
+        this.id = id;
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.source = source;
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,151 @@
+package study.datajpa.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.event.EntityChangedEvent;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * outbox_event 를 id 순서대로 batchSize 개씩 꺼내서 OutboxSink 로 전달하고, 전달한 row 는 삭제한다.
+ * - 배치마다 outbox_relay_lock 의 row 잠금(skip locked)을 잡은 트랜잭션에서 전달하고 삭제한다.
+ *   여러 노드에서 동시에 실행해도 한 곳만 전달하기 때문에 중복 전달 없이 id 순서(= 같은 엔티티의 이벤트 순서)가 유지된다.
+ *   (row 단위 skip locked 로 나눠 가지면 같은 엔티티의 이벤트가 여러 노드로 흩어져 순서가 깨진다)
+ * - 전달에 실패하면 그 이벤트부터 남겨두고 다음 실행 때 다시 전달한다. (뒤 이벤트가 앞질러 가지 않도록 멈춤)
+ * - 전달 후 삭제 전에 죽으면 다시 전달될 수 있다. (적어도 한번)
+ *
+ * 메트릭
+ * - outbox.relay.delivered : 전달한 이벤트 수 (rate -> 처리량)
+ * - outbox.relay.failures : 전달 실패 수
+ * - outbox.lag : 아직 전달하지 못한 가장 오래된 이벤트가 기록된 지 얼마나 지났는지
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    static final String SELECT = "select id, aggregate_type, aggregate_id, event_type, source, created_at" +
+            " from outbox_event order by id";
+
+    private static final RowMapper<OutboxMessage> ROW_MAPPER = (rs, rowNum) -> new OutboxMessage(
+            rs.getLong("id"),
+            rs.getString("aggregate_type"),
+            rs.getString("aggregate_id"),
+            EntityChangedEvent.Type.valueOf(rs.getString("event_type")),
+            rs.getString("source"),
+            rs.getTimestamp("created_at").toLocalDateTime());
+
+    private static final String LOCK_NAME = "outbox-relay";
+    private static final String LOCK = "select name from outbox_relay_lock where name = ? for update skip locked";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate batchTransaction;
+    private final OutboxSink sink;
+    private final int batchSize;
+    private final Counter delivered;
+    private final Counter failures;
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                       OutboxSink sink, MeterRegistry registry,
+                       @Value("${outbox.relay.batch-size}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.delivered = registry.counter("outbox.relay.delivered");
+        this.failures = registry.counter("outbox.relay.failures");
+        TimeGauge.builder("outbox.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get).register(registry);
+    }
+
+    /**
+     * 남은 이벤트를 모두 전달할 때까지 (또는 실패할 때까지, 다른 노드가 전달 중일 때까지) 반복한다.
+     * @return 전달한 이벤트 수
+     */
+    public int drain() {
+        int total = 0;
+        try {
+            while (true) {
+                int[] result = batchTransaction.execute(status -> relayBatch());
+                int sent = result[0];
+                int fetched = result[1];
+                total += sent;
+                if (fetched < 0 || sent < fetched || fetched < batchSize) {
+                    return total;
+                }
+            }
+        } finally {
+            updateLag();
+        }
+    }
+
+    // [전달한 수, 읽은 수] - 잠금을 못 잡으면 (다른 노드가 전달 중) 읽은 수는 -1
+    private int[] relayBatch() {
+        if (!tryLock()) {
+            return new int[]{0, -1};
+        }
+        List<OutboxMessage> batch = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT);
+            ps.setMaxRows(batchSize);
+            return ps;
+        }, ROW_MAPPER);
+        return new int[]{deliver(batch), batch.size()};
+    }
+
+    // 잠금 row 는 처음 실행할 때 만든다. (insert 한 트랜잭션이 그대로 잠금을 쥔다)
+    private boolean tryLock() {
+        if (!jdbcTemplate.queryForList(LOCK, String.class, LOCK_NAME).isEmpty()) {
+            return true;
+        }
+        Long exists = jdbcTemplate.queryForObject("select count(*) from outbox_relay_lock where name = ?", Long.class, LOCK_NAME);
+        if (exists != null && exists > 0) {
+            return false;
+        }
+        try {
+            jdbcTemplate.update("insert into outbox_relay_lock (name) values (?)", LOCK_NAME);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false; // 다른 노드가 먼저 만들었다.
+        }
+    }
+
+    private int deliver(List<OutboxMessage> batch) {
+        List<Object[]> sentIds = new ArrayList<>(batch.size());
+        try {
+            for (OutboxMessage message : batch) {
+                sink.send(message);
+                sentIds.add(new Object[]{message.getId()});
+            }
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("outbox relay failed, will retry from {}", batch.get(sentIds.size()).getId(), e);
+        }
+        if (!sentIds.isEmpty()) {
+            jdbcTemplate.batchUpdate("delete from outbox_event where id = ?", sentIds);
+            delivered.increment(sentIds.size());
+        }
+        return sentIds.size();
+    }
+
+    private void updateLag() {
+        Timestamp oldest = jdbcTemplate.queryForObject("select min(created_at) from outbox_event", Timestamp.class);
+        lagMillis.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest.toLocalDateTime(), LocalDateTime.now()).toMillis()));
+    }
+}
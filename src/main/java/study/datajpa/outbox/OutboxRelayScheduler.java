@@ -0,0 +1,23 @@
+package study.datajpa.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * outbox.relay.interval 마다 OutboxRelay 실행
+ * outbox.relay.enabled=false 면 등록하지 않는다. (테스트, 벤치마크에서는 drain() 을 직접 호출)
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "outbox.relay", name = "enabled", havingValue = "true")
+public class OutboxRelayScheduler {
+
+    private final OutboxRelay outboxRelay;
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval}")
+    public void relay() {
+        outboxRelay.drain();
+    }
+}
@@ -0,0 +1,10 @@
+package study.datajpa.outbox;
+
+/**
+ * 아웃박스 이벤트를 받는 곳 (메시지 브로커 등)
+ * 예외를 던지면 해당 이벤트부터 다음 relay 때 다시 전달한다. (적어도 한번 전달 -> 받는 쪽은 id 로 중복 제거)
+ */
+public interface OutboxSink {
+
+    void send(OutboxMessage message);
+}
@@ -0,0 +1,90 @@
+package study.datajpa.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import study.datajpa.event.EntityChangedEvent;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnitUtil;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 엔티티 변경 이벤트(벌크 수정 포함) -> outbox_event
+ * - 엔티티 변경 : flush 중에 발생한 이벤트를 모아두었다가 flush 가 끝나면 JDBC 배치 insert 한번으로 기록 (OutboxFlushInterceptor)
+ * - 벌크 수정 : flush 와 상관없이 발생하기 때문에 바로 기록
+ * 변경과 같은 커넥션 / 트랜잭션에서 기록하기 때문에 롤백되면 아웃박스 row 도 같이 롤백된다.
+ * 엔티티 변경이 DB 에 반영(row 잠금)된 뒤 기록하므로 같은 엔티티의 이벤트는 id 순서대로 쌓인다.
+ */
+@Component
+public class OutboxWriter {
+
+    static final String INSERT = "insert into outbox_event (aggregate_type, aggregate_id, event_type, source, created_at)" +
+            " values (?, ?, ?, ?, ?)";
+
+    private final ThreadLocal<List<Object[]>> pending = ThreadLocal.withInitial(ArrayList::new);
+    private final JdbcTemplate jdbcTemplate;
+    private final PersistenceUnitUtil persistenceUnitUtil;
+    private final Counter written;
+
+    public OutboxWriter(JdbcTemplate jdbcTemplate, EntityManagerFactory emf, MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.persistenceUnitUtil = emf.getPersistenceUnitUtil();
+        this.written = registry.counter("outbox.written");
+    }
+
+    @EventListener
+    public void onChanged(EntityChangedEvent event) {
+        if (event.isBulk()) {
+            write(List.of(toRow(event, null)));
+        } else {
+            pending.get().add(toRow(event, persistenceUnitUtil.getIdentifier(event.getEntity())));
+        }
+    }
+
+    /**
+     * flush 가 끝났을 때 : 모아둔 이벤트 기록
+     */
+    void flushPending() {
+        List<Object[]> rows = pending.get();
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            write(rows);
+        } finally {
+            pending.remove();
+        }
+    }
+
+    /**
+     * 트랜잭션이 끝났을 때 : flush 도중 실패해서 기록하지 못한 이벤트는 버린다. (변경도 롤백됨)
+     */
+    void discardPending() {
+        pending.remove();
+    }
+
+    private Object[] toRow(EntityChangedEvent event, Object id) {
+        return new Object[]{
+                event.getEntityType().getSimpleName(),
+                id == null ? null : id.toString(),
+                event.getType().name(),
+                event.getSource(),
+                Timestamp.valueOf(LocalDateTime.now())
+        };
+    }
+
+    private void write(List<Object[]> rows) {
+        if (rows.size() == 1) {
+            jdbcTemplate.update(INSERT, rows.get(0));
+        } else {
+            jdbcTemplate.batchUpdate(INSERT, rows);
+        }
+        written.increment(rows.size());
+    }
+}
@@ -0,0 +1,41 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import study.datajpa.async.DbExecutor;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * MemberRepository 비동기 버전 : DB 조회를 DbExecutor 에서 실행하고 CompletableFuture 로 돌려준다.
+ * 컨트롤러가 CompletableFuture 를 반환하면 조회하는 동안 톰캣 스레드를 반납한다.
+ * 결과는 트랜잭션 밖에서 쓰이기 때문에 엔티티 대신 값이나 DTO 로 돌려준다.
+ */
+@Component
+@RequiredArgsConstructor
+public class AsyncMemberRepository {
+
+    private final MemberRepository memberRepository;
+    private final DbExecutor dbExecutor;
+
+    public CompletableFuture<Optional<String>> findUsernameById(Long id) {
+        return dbExecutor.supply(() -> memberRepository.findById(id).map(Member::getUsername));
+    }
+
+    public CompletableFuture<Page<MemberDto>> findAllDto(Pageable pageable) {
+        return dbExecutor.supply(() -> memberRepository.findAll(pageable).map(MemberDto::new));
+    }
+
+    /**
+     * 그 밖의 조회 : call 안에서 필요한 값을 모두 꺼내야 한다. (지연로딩 포함)
+     */
+    public <T> CompletableFuture<T> execute(Function<MemberRepository, T> call) {
+        return dbExecutor.supply(() -> call.apply(memberRepository));
+    }
+}
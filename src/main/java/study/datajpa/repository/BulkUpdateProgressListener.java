@@ -0,0 +1,13 @@
+package study.datajpa.repository;
+
+/**
+ * 구간 하나가 커밋될 때마다 호출된다. (여러 스레드에서 동시에 호출될 수 있음)
+ */
+@FunctionalInterface
+public interface BulkUpdateProgressListener {
+
+    BulkUpdateProgressListener NONE = (range, updatedRows, completedChunks, totalChunks) -> {
+    };
+
+    void onChunkCompleted(IdRange range, int updatedRows, int completedChunks, int totalChunks);
+}
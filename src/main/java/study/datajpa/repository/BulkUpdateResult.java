@@ -0,0 +1,30 @@
+package study.datajpa.repository;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 구간별 벌크 수정 결과
+ * 실패하면 failure 에 원인이, pendingRanges 에 아직 반영되지 않은 구간이 남는다.
+ * 이 결과를 {@link MemberBulkUpdateExecutor#resume} 에 넘기면 남은 구간만 다시 실행한다.
+ */
+@Getter
+public class BulkUpdateResult {
+
+    private final long updatedRows;
+    private final List<IdRange> completedRanges;
+    private final List<IdRange> pendingRanges;
+    private final Throwable failure;
+
+    public BulkUpdateResult(long updatedRows, List<IdRange> completedRanges, List<IdRange> pendingRanges, Throwable failure) {
+        this.updatedRows = updatedRows;
+        this.completedRanges = List.copyOf(completedRanges);
+        this.pendingRanges = List.copyOf(pendingRanges);
+        this.failure = failure;
+    }
+
+    public boolean isCompleted() {
+        return pendingRanges.isEmpty();
+    }
+}
@@ -0,0 +1,25 @@
+package study.datajpa.repository;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * id 구간 [from, to] (양 끝 포함)
+ */
+@Getter
+@EqualsAndHashCode
+public class IdRange {
+
+    private final long from;
+    private final long to;
+
+    public IdRange(long from, long to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + from + ", " + to + "]";
+    }
+}
@@ -0,0 +1,27 @@
+package study.datajpa.repository;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * 대량 insert 결과
+ * conflicts : 이미 같은 id 가 있어서 insert 하지 않은 id
+ */
+@Getter
+@ToString
+public class ItemInsertResult {
+
+    private final List<String> inserted;
+    private final List<String> conflicts;
+
+    public ItemInsertResult(List<String> inserted, List<String> conflicts) {
+        this.inserted = List.copyOf(inserted);
+        this.conflicts = List.copyOf(conflicts);
+    }
+
+    public boolean hasConflicts() {
+        return !conflicts.isEmpty();
+    }
+}
@@ -0,0 +1,13 @@
+package study.datajpa.repository;
+
+import study.datajpa.entity.Item;
+
+/**
+ * id 를 직접 할당하는 엔티티의 insert 전용 경로
+ * save() 는 isNew() 가 false 면 merge (= select 후 update) 를 하지만,
+ * insertAll 은 select / merge 없이 JDBC 배치 insert 만 실행하고 이미 있는 id 는 행 단위로 알려준다.
+ */
+public interface ItemRepositoryCustom {
+
+    ItemInsertResult insertAll(Iterable<Item> items);
+}
@@ -0,0 +1,152 @@
+package study.datajpa.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Item;
+
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ItemRepositoryImpl implements ItemRepositoryCustom {
+
+    private static final String DUPLICATE_KEY = "23505";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DateTimeProvider dateTimeProvider;
+    private final int batchSize;
+    private volatile InsertIfAbsent insertIfAbsent;
+
+    public ItemRepositoryImpl(JdbcTemplate jdbcTemplate, DateTimeProvider dateTimeProvider,
+                              @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dateTimeProvider = dateTimeProvider;
+        this.batchSize = batchSize;
+    }
+
+    // JDBC 로 바로 insert 하기 때문에 영속성 컨텍스트, 엔티티 리스너(@CreatedDate)를 거치지 않는다.
+    // 그래서 created_date 는 JPA 감사와 같은 시계(CachedClock)로 여기서 직접 채운다.
+    @Override
+    @Transactional
+    public ItemInsertResult insertAll(Iterable<Item> items) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.from(dateTimeProvider.getNow().orElseThrow()));
+        if (insertIfAbsent == null) {
+            insertIfAbsent = InsertIfAbsent.of(jdbcTemplate.execute(
+                    (ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName()));
+        }
+        List<String> inserted = new ArrayList<>();
+        List<String> conflicts = new ArrayList<>();
+
+        List<String> chunk = new ArrayList<>(batchSize);
+        for (Item item : items) {
+            chunk.add(item.getId());
+            if (chunk.size() == batchSize) {
+                insertChunk(chunk, now, inserted, conflicts);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            insertChunk(chunk, now, inserted, conflicts);
+        }
+        return new ItemInsertResult(inserted, conflicts);
+    }
+
+    private void insertChunk(List<String> ids, Timestamp now, List<String> inserted, List<String> conflicts) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            args.add(insertIfAbsent.args(id, now));
+        }
+
+        int[] counts;
+        try {
+            counts = jdbcTemplate.batchUpdate(insertIfAbsent.sql, args);
+        } catch (DataIntegrityViolationException e) {
+            // 다른 트랜잭션이 같은 id 를 동시에 넣으면 not exists 검사를 통과하고 PK 위반이 날 수 있다.
+            // PK 중복(23505)만 충돌로 처리하고 NOT NULL 등 다른 제약 위반은 그대로 던진다.
+            if (!(e.getCause() instanceof BatchUpdateException)) {
+                throw e;
+            }
+            BatchUpdateException batch = (BatchUpdateException) e.getCause();
+            counts = batch.getUpdateCounts();
+            if (counts.length < ids.size()) {
+                // 드라이버가 실패한 행에서 멈춘 경우 : 앞 행은 결과대로, 실패한 행은 원인 확인, 뒤 행은 실행되지 않았으므로 다시 실행
+                if (!isDuplicateKey(batch)) {
+                    throw e;
+                }
+                collect(ids.subList(0, counts.length), counts, now, inserted, conflicts);
+                conflicts.add(ids.get(counts.length));
+                insertChunk(new ArrayList<>(ids.subList(counts.length + 1, ids.size())), now, inserted, conflicts);
+                return;
+            }
+        }
+        collect(ids, counts, now, inserted, conflicts);
+    }
+
+    // 0 건 : not exists 조건에 걸린 이미 있는 id
+    // EXECUTE_FAILED : 드라이버가 계속 실행한 경우 실패 원인을 알 수 없으므로 한건씩 다시 실행해서 확인
+    private void collect(List<String> ids, int[] counts, Timestamp now, List<String> inserted, List<String> conflicts) {
+        for (int i = 0; i < ids.size(); i++) {
+            String id = ids.get(i);
+            if (counts[i] == Statement.EXECUTE_FAILED) {
+                (insertOne(id, now) ? inserted : conflicts).add(id);
+            } else {
+                (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO ? inserted : conflicts).add(id);
+            }
+        }
+    }
+
+    private boolean insertOne(String id, Timestamp now) {
+        try {
+            return jdbcTemplate.update(insertIfAbsent.sql, insertIfAbsent.args(id, now)) > 0;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    // item 의 unique 제약은 id(PK) 하나뿐이라서 unique 위반 = 같은 id
+    private boolean isDuplicateKey(SQLException e) {
+        for (SQLException current = e; current != null; current = current.getNextException()) {
+            if (DUPLICATE_KEY.equals(current.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 이미 있는 id 면 0건, 없으면 1건 insert -> 배치 결과로 행마다 충돌 여부를 알 수 있다.
+     * PostgreSQL 은 on conflict do nothing, 나머지는 dual + not exists (H2, MySQL / MariaDB, Oracle 에서 동작)
+     * 그 외 DB 는 dual 이 없으면 실행되지 않으므로 여기에 추가해야 한다.
+     */
+    private enum InsertIfAbsent {
+        NOT_EXISTS("insert into item (id, created_date)" +
+                " select ?, ? from dual where not exists (select 1 from item where id = ?)"),
+        ON_CONFLICT("insert into item (id, created_date) values (?, ?) on conflict (id) do nothing");
+
+        private final String sql;
+
+        InsertIfAbsent(String sql) {
+            this.sql = sql;
+        }
+
+        static InsertIfAbsent of(String databaseProductName) {
+            return "PostgreSQL".equalsIgnoreCase(databaseProductName) ? ON_CONFLICT : NOT_EXISTS;
+        }
+
+        Object[] args(String id, Timestamp now) {
+            return this == ON_CONFLICT ? new Object[]{id, now} : new Object[]{id, now, id};
+        }
+    }
+}
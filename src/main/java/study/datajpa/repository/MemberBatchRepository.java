@@ -0,0 +1,18 @@
+package study.datajpa.repository;
+
+import study.datajpa.entity.Member;
+
+/**
+ * 대량 등록
+ */
+public interface MemberBatchRepository {
+
+    /**
+     * batch_size 단위로 flush 하고 저장한 회원을 분리하면서 저장한다.
+     * 저장이 끝난 회원은 영속성 컨텍스트에서 분리(detach)되기 때문에 변경 감지가 되지 않는다.
+     * 같은 트랜잭션에서 먼저 조회한 다른 엔티티는 그대로 영속 상태로 남는다. (단, 여기서 flush 된다)
+     *
+     * @return 저장한 회원 수
+     */
+    int saveAllBatched(Iterable<Member> members);
+}
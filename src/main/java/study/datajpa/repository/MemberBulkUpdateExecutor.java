@@ -0,0 +1,182 @@
+package study.datajpa.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.event.EntityChangedEvent;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 구간 분할 벌크 수정
+ * bulkAgePlus 처럼 update 한번으로 대상 row 전체를 긴 트랜잭션 하나에서 잠그지 않고,
+ * member_id 구간으로 나눠서 구간마다 짧은 트랜잭션으로 실행한다. (설정하면 여러 스레드로 동시에)
+ * - 구간마다 커밋되기 때문에 전체가 하나의 원자적 작업은 아니다.
+ * - 구간은 시작할 때 대상 회원 id 를 chunk-size 건마다 끊어서 정한다. 실행 도중 마지막 구간 뒤에 추가된 회원은 대상이 아니다.
+ * - 트랜잭션 밖에서 호출해야 한다. (호출한 쪽 영속성 컨텍스트는 변경 사항을 모른다)
+ */
+@Slf4j
+@Component
+public class MemberBulkUpdateExecutor {
+
+    private final EntityManager em;
+    private final TransactionTemplate chunkTransaction;
+    private final ApplicationEventPublisher publisher;
+    private final int chunkSize;
+    private final ThreadPoolExecutor executor;
+
+    public MemberBulkUpdateExecutor(EntityManager em,
+                                    PlatformTransactionManager transactionManager,
+                                    ApplicationEventPublisher publisher,
+                                    @Value("${member.bulk-update.chunk-size}") int chunkSize,
+                                    @Value("${member.bulk-update.threads}") int threads) {
+        this.em = em;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.publisher = publisher;
+        this.chunkSize = chunkSize;
+        // 호출마다 풀을 만들지 않고 모든 호출이 같은 스레드를 나눠 쓴다. (동시에 실행되는 구간 트랜잭션 수 = threads)
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "member-bulk-update-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public BulkUpdateResult bulkAgePlus(int age) {
+        return bulkAgePlus(age, BulkUpdateProgressListener.NONE);
+    }
+
+    public BulkUpdateResult bulkAgePlus(int age, BulkUpdateProgressListener listener) {
+        List<IdRange> ranges = split(age);
+        if (ranges.isEmpty()) {
+            return new BulkUpdateResult(0, List.of(), List.of(), null);
+        }
+        return execute(age, ranges, listener);
+    }
+
+    /**
+     * 실패한 결과의 남은 구간만 다시 실행한다. (이미 커밋된 구간은 다시 실행하지 않음)
+     */
+    public BulkUpdateResult resume(int age, BulkUpdateResult previous, BulkUpdateProgressListener listener) {
+        BulkUpdateResult result = execute(age, previous.getPendingRanges(), listener);
+        List<IdRange> completed = new ArrayList<>(previous.getCompletedRanges());
+        completed.addAll(result.getCompletedRanges());
+        return new BulkUpdateResult(previous.getUpdatedRows() + result.getUpdatedRows(),
+                completed, result.getPendingRanges(), result.getFailure());
+    }
+
+    // 대상 회원 id 를 member_id 순서로 chunkSize 건마다 끊어서 구간을 만든다. (keyset)
+    // id 가 띄엄띄엄 있어도 구간마다 수정되는 row 수가 chunkSize 이하로 고르다.
+    private List<IdRange> split(int age) {
+        List<IdRange> ranges = new ArrayList<>();
+        Long from = em.createQuery("select min(m.id) from Member m where m.age >= :age", Long.class)
+                .setParameter("age", age)
+                .getSingleResult();
+        while (from != null) {
+            // [구간의 마지막 id, 다음 구간의 첫 id]
+            List<Long> boundary = em.createQuery("select m.id from Member m" +
+                            " where m.age >= :age and m.id >= :from order by m.id", Long.class)
+                    .setParameter("age", age)
+                    .setParameter("from", from)
+                    .setFirstResult(chunkSize - 1)
+                    .setMaxResults(2)
+                    .getResultList();
+            if (boundary.isEmpty()) {
+                Long to = em.createQuery("select max(m.id) from Member m where m.age >= :age and m.id >= :from", Long.class)
+                        .setParameter("age", age)
+                        .setParameter("from", from)
+                        .getSingleResult();
+                ranges.add(new IdRange(from, to));
+                break;
+            }
+            ranges.add(new IdRange(from, boundary.get(0)));
+            from = boundary.size() > 1 ? boundary.get(1) : null;
+        }
+        return ranges;
+    }
+
+    private BulkUpdateResult execute(int age, List<IdRange> ranges, BulkUpdateProgressListener listener) {
+        List<IdRange> completed = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong updatedRows = new AtomicLong();
+        AtomicInteger completedChunks = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (IdRange range : ranges) {
+            futures.add(executor.submit(() -> {
+                if (failed.get()) {
+                    return; // 한 구간이라도 실패하면 나머지 구간은 실행하지 않고 남겨둔다.
+                }
+                try {
+                    int count = updateChunk(age, range);
+                    completed.add(range);
+                    updatedRows.addAndGet(count);
+                    listener.onChunkCompleted(range, count, completedChunks.incrementAndGet(), ranges.size());
+                } catch (RuntimeException | Error e) {
+                    failed.set(true); // 아직 시작하지 않은 구간이 바로 멈추도록 실패한 스레드에서 표시
+                    throw e;
+                }
+            }));
+        }
+
+        Throwable failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                    log.warn("bulkAgePlus chunk failed", failure);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.set(true);
+                futures.forEach(f -> f.cancel(false)); // 실행 중인 구간 트랜잭션은 끝까지 가게 둔다.
+                failure = e;
+                break;
+            }
+        }
+
+        List<IdRange> pending = new ArrayList<>(ranges);
+        pending.removeAll(completed);
+        return new BulkUpdateResult(updatedRows.get(), completed, pending, failure);
+    }
+
+    private int updateChunk(int age, IdRange range) {
+        return chunkTransaction.execute(status -> {
+            int count = em.createQuery("update Member m set m.age = m.age + 1, m.version = m.version + 1" +
+                            " where m.age >= :age and m.id between :from and :to")
+                    .setParameter("age", age)
+                    .setParameter("from", range.getFrom())
+                    .setParameter("to", range.getTo())
+                    .executeUpdate();
+            publisher.publishEvent(EntityChangedEvent.bulk(Member.class, "MemberBulkUpdateExecutor.bulkAgePlus(..)"));
+            return count;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
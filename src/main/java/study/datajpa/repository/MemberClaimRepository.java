@@ -0,0 +1,19 @@
+package study.datajpa.repository;
+
+import study.datajpa.entity.Member;
+
+import java.util.List;
+
+/**
+ * 회원 테이블을 작업 큐처럼 여러 워커가 나눠서 처리할 때 사용
+ * findLockByUsername 처럼 PESSIMISTIC_WRITE 로 잠그지만, 다른 워커가 이미 잠근 row 는 기다리지 않고 건너뛴다. (SKIP LOCKED)
+ * 잠금은 트랜잭션이 끝날 때 풀리기 때문에 처리(상태 변경)까지 같은 트랜잭션 안에서 해야 한다.
+ */
+public interface MemberClaimRepository {
+
+    /**
+     * age 미만인 회원 중 아직 다른 워커가 잡지 않은 회원을 id 순으로 최대 limit 명 잠근다.
+     * 처리한 회원은 age 를 올려서 다음 claim 대상에서 빠지게 한다.
+     */
+    List<Member> claimByAgeLessThan(int age, int limit);
+}
@@ -0,0 +1,39 @@
+package study.datajpa.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import java.util.List;
+
+public class MemberClaimRepositoryImpl implements MemberClaimRepository {
+
+    // javax.persistence.lock.timeout : -2 SKIP LOCKED, 0 NOWAIT, 양수는 대기 시간(ms)
+    // 하이버네이트가 DB 방언에 맞게 for update skip locked / nowait / wait n 으로 바꿔준다.
+    // (지원하지 않는 DB - H2 - 는 그냥 for update 로 실행된다)
+    static final String LOCK_TIMEOUT = "javax.persistence.lock.timeout";
+
+    private final EntityManager em;
+    private final int lockTimeout;
+
+    public MemberClaimRepositoryImpl(EntityManager em,
+                                     @Value("${member.claim.lock-timeout:-2}") int lockTimeout) {
+        this.em = em;
+        this.lockTimeout = lockTimeout;
+    }
+
+    // 트랜잭션 밖에서 호출하면 조회하자마자 잠금이 풀리기 때문에 호출하는 쪽 트랜잭션을 필수로 한다.
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Member> claimByAgeLessThan(int age, int limit) {
+        return em.createQuery("select m from Member m where m.age < :age order by m.id", Member.class)
+                .setParameter("age", age)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setHint(LOCK_TIMEOUT, lockTimeout)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,19 @@
+package study.datajpa.repository;
+
+import study.datajpa.dto.MemberDto;
+
+import java.util.stream.Stream;
+
+/**
+ * 회원 전체 내보내기
+ * 전체를 List 로 한번에 올리지 않고 DB 커서로 한건씩 읽어온다. (메모리 사용량이 건수와 상관없이 일정)
+ * - 반드시 트랜잭션 안에서 사용하고, 다 쓰면 close 해야 커서와 커넥션이 정리된다. (try-with-resources)
+ * - DTO 는 영속성 컨텍스트에 올라가지 않기 때문에 같은 트랜잭션의 다른 엔티티에 영향을 주지 않는다.
+ */
+public interface MemberExportRepository {
+
+    // member.export.fetch-size 사용
+    Stream<MemberDto> streamMemberDto();
+
+    Stream<MemberDto> streamMemberDto(int fetchSize);
+}
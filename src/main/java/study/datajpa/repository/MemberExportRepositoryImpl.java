@@ -0,0 +1,36 @@
+package study.datajpa.repository;
+
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
+import study.datajpa.dto.MemberDto;
+
+import javax.persistence.EntityManager;
+import java.util.stream.Stream;
+
+public class MemberExportRepositoryImpl implements MemberExportRepository {
+
+    private final EntityManager em;
+    private final int defaultFetchSize;
+
+    public MemberExportRepositoryImpl(EntityManager em,
+                                      @Value("${member.export.fetch-size}") int defaultFetchSize) {
+        this.em = em;
+        this.defaultFetchSize = defaultFetchSize;
+    }
+
+    @Override
+    public Stream<MemberDto> streamMemberDto() {
+        return streamMemberDto(defaultFetchSize);
+    }
+
+    // DTO 로 바로 조회하기 때문에 엔티티가 영속성 컨텍스트에 쌓이지 않고 (그래서 중간에 비울 필요도 없다),
+    // getResultStream 은 하이버네이트의 forward-only 커서(ScrollableResults)로 동작한다.
+    @Override
+    public Stream<MemberDto> streamMemberDto(int fetchSize) {
+        return em.createQuery("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name)" +
+                        " from Member m left join m.team t order by m.id", MemberDto.class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream();
+    }
+}
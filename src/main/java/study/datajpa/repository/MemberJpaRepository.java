@@ -2,8 +2,10 @@ package study.datajpa.repository;
 
 import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
 import study.datajpa.entity.Member;
+import study.datajpa.event.EntityChangedEvent;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
@@ -16,6 +18,7 @@ public class MemberJpaRepository {
 
     @PersistenceContext
     private final EntityManager em;
+    private final ApplicationEventPublisher publisher;
 
     public Member save(Member member) {
         em.persist(member);
@@ -77,10 +80,13 @@ public class MemberJpaRepository {
     }
 
     // 순수 JPA 벌크성 수정 쿼리 
+    // 벌크 수정은 엔티티 리스너를 거치지 않기 때문에 변경 이벤트를 직접 발행한다.
     public int bulkAgePlus(int age) {
 
-        return em.createQuery("update Member m set m.age = m.age + 1 where m.age >= :age")
+        int resultCount = em.createQuery("update Member m set m.age = m.age + 1, m.version = m.version + 1 where m.age >= :age")
                 .setParameter("age", age)
                 .executeUpdate();
+        publisher.publishEvent(EntityChangedEvent.bulk(Member.class, "MemberJpaRepository.bulkAgePlus(..)"));
+        return resultCount;
     }
 }
@@ -0,0 +1,27 @@
+package study.datajpa.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import study.datajpa.entity.Member;
+
+/**
+ * count 쿼리를 아끼는 페이징
+ * 다음 페이지로 넘어갈 때마다 전체 count 를 다시 세지 않도록 totalCount 를 잠깐 캐시해두고,
+ * 엔티티가 변경되면 (벌크 수정 포함) 바로 무효화한다.
+ */
+public interface MemberPagingRepository {
+
+    Page<Member> findByAgeWithCachedCount(int age, Pageable pageable);
+
+    // 전체 회원 수가 paging.count-estimate.threshold 이상이면 count(*) 대신 DB 통계의 추정치를 사용한다.
+    Page<MemberProjection> findByNativeProjectionWithCachedCount(Pageable pageable);
+
+    // content 와 count 를 동시에 실행 (ParallelPageExecutor) -> 응답 시간이 두 쿼리의 합이 아니라 긴 쪽 하나
+    Page<Member> findByAgeWithParallelCount(int age, Pageable pageable);
+
+    Page<MemberProjection> findByNativeProjectionWithParallelCount(Pageable pageable);
+
+    // JpaSpecificationExecutor.findAll(spec, pageable) 과 같은 결과
+    Page<Member> findAllWithParallelCount(Specification<Member> spec, Pageable pageable);
+}
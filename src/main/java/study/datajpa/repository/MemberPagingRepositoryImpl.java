@@ -0,0 +1,140 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import study.datajpa.cache.PageCountCache;
+import study.datajpa.cache.TableStatistics;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class MemberPagingRepositoryImpl implements MemberPagingRepository {
+
+    private static final String FIND_BY_AGE = "select m from Member m left join m.team t where m.age = :age";
+    private static final String COUNT_BY_AGE = "select count(m) from Member m where m.age = :age";
+
+    private static final String NATIVE_PROJECTION = "select m.member_id as id, m.username, t.name as teamName" +
+            " from member m left join team t on m.team_id = t.team_id";
+    private static final String NATIVE_COUNT = "select count(*) from member";
+
+    private final EntityManager em;
+    private final PageCountCache pageCountCache;
+    private final TableStatistics tableStatistics;
+    private final ParallelPageExecutor parallelPageExecutor;
+    private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
+    @Override
+    public Page<Member> findByAgeWithCachedCount(int age, Pageable pageable) {
+        Query query = em.createQuery(QueryUtils.applySorting(FIND_BY_AGE, pageable.getSort(), "m"), Member.class)
+                .setParameter("age", age);
+        List<Member> content = page(query, pageable).getResultList();
+
+        // 마지막 페이지 등 content 만으로 total 을 알 수 있으면 count 자체를 하지 않는다.
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> pageCountCache.getOrCount(COUNT_BY_AGE, List.of(age), List.of(Member.class),
+                        () -> em.createQuery(COUNT_BY_AGE, Long.class).setParameter("age", age).getSingleResult()));
+    }
+
+    @Override
+    public Page<MemberProjection> findByNativeProjectionWithCachedCount(Pageable pageable) {
+        Query query = em.createNativeQuery(QueryUtils.applySorting(NATIVE_PROJECTION, pageable.getSort(), "m"), Tuple.class);
+        List<Tuple> rows = page(query, pageable).getResultList();
+        List<MemberProjection> content = rows.stream()
+                .map(this::toProjection)
+                .collect(Collectors.toList());
+
+        // 추정치 조회(information_schema)도 캐시에 없을 때만 한다.
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> pageCountCache.getOrCount(NATIVE_COUNT, List.of(), List.of(Member.class),
+                        () -> tableStatistics.estimateIfLarge("member")
+                                .orElseGet(() -> ((Number) em.createNativeQuery(NATIVE_COUNT).getSingleResult()).longValue())));
+    }
+
+    // count 는 다른 스레드에서 실행되기 때문에 count 쪽 람다에서는 호출한 쪽 트랜잭션 / 영속성 컨텍스트를 쓰지 않는다.
+    // (em 은 스레드마다 트랜잭션에 묶인 EntityManager 를 찾아주는 공유 프록시)
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Member> findByAgeWithParallelCount(int age, Pageable pageable) {
+        return parallelPageExecutor.page(pageable,
+                () -> page(em.createQuery(QueryUtils.applySorting(FIND_BY_AGE, pageable.getSort(), "m"), Member.class)
+                        .setParameter("age", age), pageable).getResultList(),
+                () -> em.createQuery(COUNT_BY_AGE, Long.class).setParameter("age", age).getSingleResult());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<MemberProjection> findByNativeProjectionWithParallelCount(Pageable pageable) {
+        return parallelPageExecutor.page(pageable,
+                () -> {
+                    Query query = em.createNativeQuery(QueryUtils.applySorting(NATIVE_PROJECTION, pageable.getSort(), "m"), Tuple.class);
+                    List<Tuple> rows = page(query, pageable).getResultList();
+                    return rows.stream().map(this::toProjection).collect(Collectors.toList());
+                },
+                () -> ((Number) em.createNativeQuery(NATIVE_COUNT).getSingleResult()).longValue());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Member> findAllWithParallelCount(Specification<Member> spec, Pageable pageable) {
+        return parallelPageExecutor.page(pageable,
+                () -> {
+                    CriteriaBuilder cb = em.getCriteriaBuilder();
+                    CriteriaQuery<Member> query = cb.createQuery(Member.class);
+                    Root<Member> root = query.from(Member.class);
+                    where(query, spec.toPredicate(root, query, cb));
+                    query.select(root).orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+                    return page(em.createQuery(query), pageable).getResultList();
+                },
+                () -> {
+                    CriteriaBuilder cb = em.getCriteriaBuilder();
+                    CriteriaQuery<Long> query = cb.createQuery(Long.class);
+                    Root<Member> root = query.from(Member.class);
+                    where(query, spec.toPredicate(root, query, cb));
+                    query.select(query.isDistinct() ? cb.countDistinct(root) : cb.count(root));
+                    return em.createQuery(query).getSingleResult();
+                });
+    }
+
+    // spec 이 조건 없음(null)을 돌려줄 수 있다. (MemberSpec.teamName)
+    private void where(CriteriaQuery<?> query, Predicate predicate) {
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+
+    private Query page(Query query, Pageable pageable) {
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return query;
+    }
+
+    // 네이티브 쿼리 컬럼 별칭은 DB 에 따라 대문자로 올 수 있기 때문에 대소문자 구분 없이 매핑
+    private MemberProjection toProjection(Tuple tuple) {
+        Map<String, Object> values = new LinkedCaseInsensitiveMap<>();
+        for (TupleElement<?> element : tuple.getElements()) {
+            values.put(element.getAlias(), tuple.get(element));
+        }
+        return projectionFactory.createProjection(MemberProjection.class, values);
+    }
+}
@@ -5,7 +5,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberProjectionView;
+import study.datajpa.dto.MemberValidator;
+import study.datajpa.dto.NestedClosedProjectionsView;
+import study.datajpa.dto.UsernameOnlyView;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.UsernameOnlyDto;
 
@@ -16,7 +21,9 @@ import java.util.List;
 import java.util.Optional;
 
 // @Repository 어노테이션 생략해도 됨 -> 그리고 알아서 Jpa 관련 예외를 Spring 예외로 변환해줌
-public interface MemberRepository extends JpaRepository<Member, Long> , MemberRepositoryCustom, JpaSpecificationExecutor{
+public interface MemberRepository extends JpaRepository<Member, Long> , MemberRepositoryCustom, JpaSpecificationExecutor,
+        MemberPagingRepository, MemberBatchRepository, MemberExportRepository, MemberSearchRepository,
+        MemberClaimRepository {
 
     // 메소드 이름으로 쿼리 생성
     List<Member> findByUsernameAndAgeGreaterThan(String username, int age);
@@ -32,10 +39,21 @@ public interface MemberRepository extends JpaRepository<Member, Long> , MemberRe
     @Query("select m from Member m where m.username = :username and m.age = :age")
     List<Member> findUser(@Param("username") String username, @Param("age") int age);
 
+    // 쿼리 캐시 : 결과를 (쿼리 + 파라미터) 별로 캐시한다. (대시보드처럼 자주 읽는 조회 전용 쿼리)
+    // 엔티티가 아니라 스칼라 값으로 보관하고 꺼낼 때마다 새 DTO 를 만들기 때문에 캐시된 값이 오염되지 않는다.
+    // Member, Team 테이블이 변경되면 (@Modifying 벌크 수정 포함) 하이버네이트가 해당 테이블을 참조하는 캐시를 무효화한다.
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "member-projection-queries")
+    })
     @Query("select m.username from Member m")
     List<String> findUsernameList();
 
     // @Query 값 DTO 조회하기
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "member-projection-queries")
+    })
     @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m join m.team t")
     List<MemberDto> findMemberDto();
 
@@ -53,9 +71,23 @@ public interface MemberRepository extends JpaRepository<Member, Long> , MemberRe
     )
     Page<Member> findByAge(int age, Pageable pageable); // 스프링 데이터 jpa 페이징과 정렬
 
+    // 키셋(seek) 페이징 : offset 없이 (username, member_id) 다음 값부터 읽는다.
+    // 페이지가 아무리 뒤로 가도 앞 페이지 데이터를 읽고 버리지 않기 때문에 조회 비용이 일정하다.
+    // pageable 은 size 만 사용한다. (정렬은 쿼리에 고정)
+    // username 이 null 인 회원은 비교가 되지 않으므로 키셋 페이징 대상에서 제외된다.
+    @Query("select m from Member m where m.username is not null order by m.username asc, m.id asc")
+    List<Member> findKeysetFirst(Pageable pageable);
+
+    // username >= :username 을 앞에 두어야 (username, member_id) 인덱스를 범위로 탄다. (or 만 있으면 전체 스캔 후 정렬)
+    @Query("select m from Member m" +
+            " where m.username >= :username and (m.username > :username or m.id > :id)" +
+            " order by m.username asc, m.id asc")
+    List<Member> findKeysetAfter(@Param("username") String username, @Param("id") Long id, Pageable pageable);
+
     // 이 어노테이션을 꼭 넣어야 데이터 변경이 된다!! (안쓰면 에러남..ㅎㅎ)
+    // 벌크 수정은 @Version 을 올려주지 않기 때문에 직접 올린다. (이미 읽어둔 엔티티를 수정하면 충돌로 감지)
     @Modifying(clearAutomatically = true)
-    @Query("update Member m set m.age = m.age + 1 where m.age >= :age")
+    @Query("update Member m set m.age = m.age + 1, m.version = m.version + 1 where m.age >= :age")
     int bulkAgePlus(@Param("age") int age);
 
     // N + 1 문제 해결 : 페치 조인
@@ -76,20 +108,47 @@ public interface MemberRepository extends JpaRepository<Member, Long> , MemberRe
     @EntityGraph(attributePaths = {"team"})
     List<Member> findEntityGraphByUsername(@Param("username") String username);
 
+    // readOnly 트랜잭션 -> datasource.routing 을 켜면 replica 에서 조회
+    @Transactional(readOnly = true)
     @QueryHints(value= @QueryHint( name = "org.hibernate.readOnly", value = "true"))
     Member findReadOnlyByUsername(String username);
 
+    // 잠금 대기 시간 없이 다른 트랜잭션이 끝날 때까지 기다린다. (여러 워커가 나눠 처리할 때는 claimByAgeLessThan)
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     List<Member> findLockByUsername(String username);
 
+    // 조건부 GET 검증 값 (MemberConditionalGetInterceptor) : 엔티티를 만들지 않고 세 컬럼만 조회
+    @Query("select new study.datajpa.dto.MemberValidator(m.id, m.version, m.lastModifiedDate) from Member m where m.id = :id")
+    Optional<MemberValidator> findValidatorById(@Param("id") Long id);
+
     // Projections
     List<UsernameOnly> findProjectionsByUsername(@Param("username") String username);
 
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "member-projection-queries")
+    })
     List<UsernameOnlyDto> findProjectionsDtoByUsername(@Param("username") String username);
 
     // 동적 Projections
     <T> List<T> findProjectionsDtoByUsername(@Param("username") String username, Class<T> type);
 
+    // Projections 최적화 : 프록시, SpEL 대신 구현 클래스를 생성자 표현식으로 바로 조회
+    // UsernameOnly 의 @Value("#{target.username + ' ' + target.age}") 계산을 SELECT 절에서 한다.
+    // SpEL 은 null 을 "null" 로 이어 붙이지만 SQL 은 null 이 하나라도 있으면 null -> coalesce 로 맞춘다.
+    @Query("select new study.datajpa.dto.UsernameOnlyView(concat(coalesce(m.username, 'null'), ' ', cast(m.age as string)))" +
+            " from Member m where m.username = :username")
+    List<UsernameOnlyView> findUsernameOnlyViewByUsername(@Param("username") String username);
+
+    @Query("select new study.datajpa.dto.NestedClosedProjectionsView(m.username, t.name)" +
+            " from Member m left join m.team t where m.username = :username")
+    List<NestedClosedProjectionsView> findNestedViewByUsername(@Param("username") String username);
+
+    @Query(value = "select new study.datajpa.dto.MemberProjectionView(m.id, m.username, t.name)" +
+            " from Member m left join m.team t",
+            countQuery = "select count(m) from Member m")
+    Page<MemberProjectionView> findMemberProjectionView(Pageable pageable);
+
     // 네이티브 쿼리
     @Query(value = "select * from member where username = ?", nativeQuery = true)
     Member findByNativeQuery(String username);
@@ -1,5 +1,6 @@
 package study.datajpa.repository;
 
+import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 
 import java.util.List;
@@ -8,4 +9,13 @@ import java.util.List;
 // QueryDsl를 주로 사용할 때 custom 해서 많이 사용한다.
 public interface MemberRepositoryCustom {
     List<Member> findMemberCustom();
+
+    // findAllById 와 달리 입력 순서를 보장하고, in 절을 batch 크기로 나누고, 영속성 컨텍스트에 있는 id 는 조회하지 않는다.
+    List<Member> findAllByIdInOrder(List<Long> ids);
+
+    // findMemberDto 와 같은 결과, 생성자 표현식 대신 컬럼을 조회하고 캐시해둔 생성자 핸들로 DTO 를 만든다.
+    List<MemberDto> findMemberDtoByRows();
+
+    // 동적 Projections (클래스 기반) : 생성자 파라미터 이름과 같은 Member 필드만 조회해서 캐시해둔 생성자 핸들로 만든다.
+    <T> List<T> findDtoByUsername(String username, Class<T> type);
 }
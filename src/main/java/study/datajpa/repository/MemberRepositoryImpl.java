@@ -1,18 +1,102 @@
 package study.datajpa.repository;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
+import study.datajpa.util.RowConstructor;
 
 import javax.persistence.EntityManager;
+import javax.persistence.metamodel.EntityType;
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
 
-@RequiredArgsConstructor
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
     private final EntityManager em;
+    private final int batchSize;
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+    private final ConcurrentMap<Class<?>, DtoQuery<?>> dtoQueries = new ConcurrentHashMap<>();
+
+    public MemberRepositoryImpl(EntityManager em,
+                                @Value("${spring.jpa.properties.hibernate.default_batch_fetch_size}") int batchSize) {
+        this.em = em;
+        this.batchSize = batchSize;
+    }
 
     @Override
     public List<Member> findMemberCustom() {
         return em.createQuery("select m from Member m").getResultList();
     }
+
+    @Override
+    public List<Member> findAllByIdInOrder(List<Long> ids) {
+        return MultiLoadSupport.findAllByIdInOrder(em, Member.class, ids, batchSize);
+    }
+
+    @Override
+    public List<MemberDto> findMemberDtoByRows() {
+        RowConstructor<MemberDto> constructor = RowConstructor.of(MemberDto.class, Long.class, String.class, String.class);
+        return em.createQuery("select m.id, m.username, t.name from Member m join m.team t", Object[].class)
+                .getResultList().stream()
+                .map(constructor::newInstance)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public <T> List<T> findDtoByUsername(String username, Class<T> type) {
+        DtoQuery<T> dtoQuery = dtoQuery(type);
+        List<?> rows = em.createQuery(dtoQuery.jpql)
+                .setParameter("username", username)
+                .getResultList();
+        return rows.stream()
+                .map(row -> dtoQuery.constructor.newInstance(row instanceof Object[] ? (Object[]) row : new Object[]{row}))
+                .collect(Collectors.toList());
+    }
+
+    // DTO 타입마다 한번만 JPQL 과 생성자 핸들을 만든다.
+    @SuppressWarnings("unchecked")
+    private <T> DtoQuery<T> dtoQuery(Class<T> type) {
+        return (DtoQuery<T>) dtoQueries.computeIfAbsent(type, this::createDtoQuery);
+    }
+
+    private DtoQuery<?> createDtoQuery(Class<?> type) {
+        EntityType<Member> member = em.getMetamodel().entity(Member.class);
+        for (Constructor<?> constructor : type.getConstructors()) {
+            String[] names = parameterNameDiscoverer.getParameterNames(constructor);
+            if (names == null || names.length == 0 || !allAttributes(member, names)) {
+                continue;
+            }
+            String select = Arrays.stream(names).map(name -> "m." + name).collect(Collectors.joining(", "));
+            String jpql = "select " + select + " from Member m where m.username = :username";
+            return new DtoQuery<>(jpql, RowConstructor.of(type, constructor.getParameterTypes()));
+        }
+        throw new IllegalArgumentException(type.getName() + " 에 Member 필드 이름과 같은 파라미터를 가진 public 생성자가 없습니다.");
+    }
+
+    private boolean allAttributes(EntityType<Member> member, String[] names) {
+        for (String name : names) {
+            try {
+                member.getAttribute(name);
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class DtoQuery<T> {
+        private final String jpql;
+        private final RowConstructor<T> constructor;
+
+        DtoQuery(String jpql, RowConstructor<T> constructor) {
+            this.jpql = jpql;
+            this.constructor = constructor;
+        }
+    }
 }
@@ -0,0 +1,20 @@
+package study.datajpa.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import study.datajpa.dto.MemberSearchCondition;
+import study.datajpa.entity.Member;
+
+/**
+ * 회원 검색 (MemberSpec.username + MemberSpec.teamName 조합)
+ * JpaSpecificationExecutor 는 호출할 때마다 Criteria 를 새로 만들고 JPQL 로 다시 렌더링한다.
+ * 여기서는 조합의 구조(ShapedSpecification.shape) + 정렬 별로 한번만 파라미터 Criteria 를 만들어 JPQL 로 렌더링해서 캐시하고,
+ * 이후에는 그 JPQL 에 값만 바인딩한다. (같은 JPQL 문자열이라 하이버네이트 쿼리 플랜 캐시도 그대로 재사용)
+ */
+public interface MemberSearchRepository {
+
+    // 값이 없는 조건은 빠진다.
+    Page<Member> search(MemberSearchCondition condition, Pageable pageable);
+
+    Page<Member> search(ShapedSpecification<Member> spec, Pageable pageable);
+}
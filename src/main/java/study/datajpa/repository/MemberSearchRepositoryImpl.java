@@ -0,0 +1,100 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.util.StringUtils;
+import study.datajpa.dto.MemberSearchCondition;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+@RequiredArgsConstructor
+public class MemberSearchRepositoryImpl implements MemberSearchRepository {
+
+    // 정렬은 요청마다 달라질 수 있어서 캐시 크기를 제한한다. (넘치면 캐시하지 않고 매번 렌더링)
+    private static final int MAX_CACHED_QUERIES = 1000;
+
+    private final EntityManager em;
+    private final ConcurrentMap<String, String> queries = new ConcurrentHashMap<>();
+
+    @Override
+    public Page<Member> search(MemberSearchCondition condition, Pageable pageable) {
+        ShapedSpecification<Member> spec = StringUtils.hasText(condition.getUsername())
+                ? MemberSpec.username(condition.getUsername())
+                : ShapedSpecification.none();
+        return search(spec.and(MemberSpec.teamName(condition.getTeamName())), pageable);
+    }
+
+    @Override
+    public Page<Member> search(ShapedSpecification<Member> spec, Pageable pageable) {
+        Sort sort = pageable.getSort();
+        String contentJpql = jpql("content:" + spec.shape() + ":" + sort, () -> {
+            CriteriaBuilder cb = em.getCriteriaBuilder();
+            CriteriaQuery<Member> query = cb.createQuery(Member.class);
+            Root<Member> root = query.from(Member.class);
+            where(query, spec.toParameterizedPredicate(root, query, cb));
+            return query.select(root).orderBy(QueryUtils.toOrders(sort, root, cb));
+        });
+
+        TypedQuery<Member> contentQuery = em.createQuery(contentJpql, Member.class);
+        bind(contentQuery, spec.values());
+        if (pageable.isPaged()) {
+            contentQuery.setFirstResult((int) pageable.getOffset());
+            contentQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<Member> content = contentQuery.getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> {
+            String countJpql = jpql("count:" + spec.shape(), () -> {
+                CriteriaBuilder cb = em.getCriteriaBuilder();
+                CriteriaQuery<Long> query = cb.createQuery(Long.class);
+                Root<Member> root = query.from(Member.class);
+                where(query, spec.toParameterizedPredicate(root, query, cb));
+                return query.select(cb.count(root));
+            });
+            TypedQuery<Long> countQuery = em.createQuery(countJpql, Long.class);
+            bind(countQuery, spec.values());
+            return countQuery.getSingleResult();
+        });
+    }
+
+    // 캐시에 없으면 Criteria 를 만들어서 하이버네이트가 렌더링한 JPQL 을 꺼내둔다. (파라미터는 :조건이름)
+    private String jpql(String key, Supplier<CriteriaQuery<?>> criteria) {
+        String cached = queries.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        String rendered = em.createQuery(criteria.get())
+                .unwrap(org.hibernate.query.Query.class)
+                .getQueryString();
+        if (queries.size() < MAX_CACHED_QUERIES) {
+            queries.putIfAbsent(key, rendered);
+        }
+        return rendered;
+    }
+
+    private void where(CriteriaQuery<?> query, Predicate predicate) {
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+
+    private void bind(Query query, Map<String, Object> values) {
+        values.forEach(query::setParameter);
+    }
+}
@@ -1,35 +1,29 @@
 package study.datajpa.repository;
 
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.StringUtils;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
 
 import javax.persistence.criteria.*;
 
+/**
+ * 회원 검색 조건
+ * ShapedSpecification 이라서 and 로 조합한 구조별로 쿼리를 캐시할 수 있다. (MemberSearchRepository.search(spec, pageable))
+ */
 public class MemberSpec {
 
-    public static Specification<Member> teamName(final String teamName) {
-        return new Specification<Member>() {
-            @Override
-            public Predicate toPredicate(Root<Member> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
-
-                if (StringUtils.isEmpty(teamName)) {
-                    return null;
-                }
-
-                Join<Member, Team> team = root.join("team", JoinType.INNER);// 회원과 조인
-                return criteriaBuilder.equal(team.get("name"), teamName);
-            }
-        };
+    public static ShapedSpecification<Member> teamName(final String teamName) {
+        if (StringUtils.isEmpty(teamName)) {
+            return ShapedSpecification.none();
+        }
+        return ShapedSpecification.condition("teamName", String.class, teamName, (root, query, criteriaBuilder, value) -> {
+            Join<Member, Team> team = root.join("team", JoinType.INNER);// 회원과 조인
+            return criteriaBuilder.equal(team.get("name"), value);
+        });
     }
 
-    public static Specification<Member> username(final String username) {
-        return new Specification<Member>() {
-            @Override
-            public Predicate toPredicate(Root<Member> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
-                return criteriaBuilder.equal(root.get("username"), username);
-            }
-        };
+    public static ShapedSpecification<Member> username(final String username) {
+        return ShapedSpecification.condition("username", String.class, username,
+                (root, query, criteriaBuilder, value) -> criteriaBuilder.equal(root.get("username"), value));
     }
 }
@@ -0,0 +1,31 @@
+package study.datajpa.repository;
+
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * 여러 id 를 한번에 조회 (하이버네이트 multiLoad)
+ * - batchSize 개씩 in 절로 나눠서 조회
+ * - 이미 영속성 컨텍스트에 있는 엔티티는 DB 에서 다시 조회하지 않음
+ * - 입력한 id 순서대로 돌려줌 (없는 id 는 제외)
+ */
+final class MultiLoadSupport {
+
+    private MultiLoadSupport() {
+    }
+
+    static <T> List<T> findAllByIdInOrder(EntityManager em, Class<T> entityClass, List<? extends Serializable> ids, int batchSize) {
+        List<T> result = em.unwrap(Session.class)
+                .byMultipleIds(entityClass)
+                .withBatchSize(batchSize)
+                .enableSessionCheck(true)
+                .enableOrderedReturn(true)
+                .multiLoad(ids);
+        return result.stream().filter(Objects::nonNull).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,184 @@
+package study.datajpa.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 페이징 content 쿼리와 count 쿼리를 동시에 실행한다.
+ * count 는 별도 스레드에서 새 읽기 전용 트랜잭션(= 다른 커넥션)으로 실행하고, content 는 호출한 스레드에서 실행한다.
+ *
+ * 다음 경우에는 지금처럼 호출한 트랜잭션에서 차례대로 실행한다.
+ * - 쓰기 트랜잭션 안 : 아직 커밋하지 않은 변경이 count 에도 보여야 한다.
+ * - REPEATABLE_READ 이상 격리 수준 : content 와 count 가 같은 스냅샷을 봐야 한다.
+ *   (격리 수준을 지정하지 않으면 paging.parallel-count.default-isolation - DB 기본값 - 으로 판단)
+ * - paging.parallel-count.enabled=false, 또는 실행 대기열이 가득 찬 경우
+ *
+ * 호출한 쪽은 content 를 읽은 커넥션을 쥔 채로 count 를 기다린다. (OSIV 면 요청이 끝날 때까지)
+ * 풀이 모자라 count 스레드가 커넥션을 acquire-timeout 안에 얻지 못하면 count 결과를 버리고 호출한 쪽에서 차례대로 센다.
+ * -> 요청마다 커넥션 두개를 쥐고 서로 기다리다 풀이 바닥나지 않도록.
+ * 커넥션 풀 크기는 동시 요청 수 + paging.parallel-count.threads 이상으로 잡아야 병렬로 실행된다.
+ */
+@Slf4j
+@Component
+public class ParallelPageExecutor {
+
+    private final boolean enabled;
+    private final ThreadPoolExecutor executor;
+    private final TransactionTemplate countTransaction;
+    private final DataSource dataSource;
+    private final Duration acquireTimeout;
+    private final Isolation defaultIsolation;
+
+    public ParallelPageExecutor(PlatformTransactionManager transactionManager,
+                                DataSource dataSource,
+                                @Value("${paging.parallel-count.enabled}") boolean enabled,
+                                @Value("${paging.parallel-count.threads}") int threads,
+                                @Value("${paging.parallel-count.queue-capacity}") int queueCapacity,
+                                @Value("${paging.parallel-count.acquire-timeout}") Duration acquireTimeout,
+                                @Value("${paging.parallel-count.default-isolation}") Isolation defaultIsolation) {
+        Assert.isTrue(defaultIsolation != Isolation.DEFAULT, "paging.parallel-count.default-isolation 은 DB 의 기본 격리 수준을 적어야 합니다.");
+        this.enabled = enabled;
+        this.dataSource = dataSource;
+        this.acquireTimeout = acquireTimeout;
+        this.defaultIsolation = defaultIsolation;
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "page-count-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.countTransaction = new TransactionTemplate(transactionManager);
+        this.countTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.countTransaction.setReadOnly(true);
+    }
+
+    public <T> Page<T> page(Pageable pageable, Supplier<List<T>> content, LongSupplier count) {
+        CountTask task = canRunConcurrently() ? submit(count) : null;
+        if (task == null) {
+            return PageableExecutionUtils.getPage(content.get(), pageable, count);
+        }
+
+        List<T> rows;
+        try {
+            rows = content.get();
+        } catch (RuntimeException e) {
+            task.abandon();
+            throw e;
+        }
+        Page<T> page = PageableExecutionUtils.getPage(rows, pageable, () -> join(task, count));
+        task.abandon(); // content 만으로 total 을 알 수 있어서 쓰지 않은 경우
+        return page;
+    }
+
+    // 격리 수준을 지정하지 않은 트랜잭션은 DB 기본값(paging.parallel-count.default-isolation)으로 판단한다.
+    private boolean canRunConcurrently() {
+        if (!enabled) {
+            return false;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return true;
+        }
+        Integer isolation = TransactionSynchronizationManager.getCurrentTransactionIsolationLevel();
+        int effective = isolation != null ? isolation : defaultIsolation.value();
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && effective < TransactionDefinition.ISOLATION_REPEATABLE_READ;
+    }
+
+    private CountTask submit(LongSupplier count) {
+        CountTask task = new CountTask();
+        try {
+            task.future = executor.submit(() -> countTransaction.execute(status -> {
+                touchConnection();
+                task.connected.countDown();
+                // 기다리던 쪽이 이미 차례대로 센 경우 (커넥션을 늦게 얻음) 다시 세지 않는다.
+                return task.abandoned ? null : count.getAsLong();
+            }));
+            return task;
+        } catch (RejectedExecutionException e) {
+            log.debug("page count executor is full, counting sequentially");
+            return null;
+        }
+    }
+
+    // 트랜잭션을 시작해도 LazyConnectionDataSourceProxy (datasource.routing) 는 실제 커넥션을 얻지 않는다.
+    // 커넥션 메타데이터를 읽어서 풀에서 물리 커넥션을 받아둔다. (풀이 모자라면 여기서 기다린다)
+    private void touchConnection() {
+        try {
+            DataSourceUtils.getConnection(dataSource).getMetaData();
+        } catch (SQLException e) {
+            throw new IllegalStateException("page count connection not available", e);
+        }
+    }
+
+    private long join(CountTask task, LongSupplier count) {
+        try {
+            if (!task.connected.await(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                // count 스레드는 커넥션을 얻은 뒤 그냥 끝나도록 두고 (인터럽트하지 않음) 이미 쥐고 있는 커넥션으로 센다.
+                task.abandon();
+                log.debug("page count connection not acquired in {}, counting sequentially", acquireTimeout);
+                return count.getAsLong();
+            }
+            return task.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            task.abandon();
+            throw new IllegalStateException("interrupted while waiting for page count", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("page count failed", cause);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 별도 스레드의 count 실행 상태.
+     * 시작한 count 는 인터럽트하지 않는다. (JDBC 실행 중 인터럽트는 커넥션을 닫아버릴 수 있다)
+     */
+    private static class CountTask {
+
+        private final CountDownLatch connected = new CountDownLatch(1);
+        private volatile boolean abandoned;
+        private Future<Long> future;
+
+        // 대기열에 있으면 빼고, 이미 시작했으면 결과만 버린다.
+        void abandon() {
+            abandoned = true;
+            future.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package study.datajpa.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 구조(어떤 조건이 어떤 순서로 and 되었는지)와 값을 분리한 Specification
+ * - shape() : 값과 상관없는 구조 키 -> 같은 조합이면 값이 달라도 같은 키 (MemberSearchRepository 가 쿼리 캐시 키로 사용)
+ * - values() : 조건 이름 = 파라미터 이름으로 바인딩할 값
+ * 일반 Specification 으로도 그대로 쓸 수 있다. (JpaSpecificationExecutor 에서는 값을 리터럴로 넣는다)
+ */
+public final class ShapedSpecification<T> implements Specification<T> {
+
+    /**
+     * 조건 하나 : value 는 값 자리에 들어갈 식 (캐시 쿼리에서는 이름 있는 파라미터, 그 외에는 리터럴)
+     */
+    @FunctionalInterface
+    public interface Condition<T> {
+        Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb, Expression<?> value);
+    }
+
+    private static final ShapedSpecification<?> NONE = new ShapedSpecification<>(List.of());
+
+    private final List<Leaf<T>> leaves;
+
+    private ShapedSpecification(List<Leaf<T>> leaves) {
+        this.leaves = leaves;
+    }
+
+    /**
+     * @param name 구조 키이자 파라미터 이름 (한 조합 안에서 겹치면 안된다)
+     */
+    public static <T> ShapedSpecification<T> condition(String name, Class<?> type, Object value, Condition<T> condition) {
+        return new ShapedSpecification<>(List.of(new Leaf<>(name, type, value, condition)));
+    }
+
+    // 조건 없음 (and 하면 상대 조건만 남는다)
+    @SuppressWarnings("unchecked")
+    public static <T> ShapedSpecification<T> none() {
+        return (ShapedSpecification<T>) NONE;
+    }
+
+    public ShapedSpecification<T> and(ShapedSpecification<T> other) {
+        List<Leaf<T>> combined = new ArrayList<>(leaves);
+        for (Leaf<T> leaf : other.leaves) {
+            if (combined.stream().anyMatch(l -> l.name.equals(leaf.name))) {
+                throw new IllegalArgumentException("duplicate condition name: " + leaf.name);
+            }
+            combined.add(leaf);
+        }
+        return new ShapedSpecification<>(Collections.unmodifiableList(combined));
+    }
+
+    public String shape() {
+        return leaves.stream().map(leaf -> leaf.name).collect(Collectors.joining("&"));
+    }
+
+    public Map<String, Object> values() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        leaves.forEach(leaf -> values.put(leaf.name, leaf.value));
+        return values;
+    }
+
+    @Override
+    public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        return build(root, query, cb, leaf -> leaf.value == null ? cb.nullLiteral(leaf.type) : cb.literal(leaf.value));
+    }
+
+    // 값 대신 이름 있는 파라미터로 만든다. (렌더링한 JPQL 을 캐시하고 values() 만 바인딩)
+    Predicate toParameterizedPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        return build(root, query, cb, leaf -> cb.parameter(leaf.type, leaf.name));
+    }
+
+    private Predicate build(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb, Function<Leaf<T>, Expression<?>> value) {
+        if (leaves.isEmpty()) {
+            return null;
+        }
+        Predicate[] predicates = leaves.stream()
+                .map(leaf -> leaf.condition.toPredicate(root, query, cb, value.apply(leaf)))
+                .toArray(Predicate[]::new);
+        return predicates.length == 1 ? predicates[0] : cb.and(predicates);
+    }
+
+    private static final class Leaf<T> {
+        private final String name;
+        private final Class<?> type;
+        private final Object value;
+        private final Condition<T> condition;
+
+        private Leaf(String name, Class<?> type, Object value, Condition<T> condition) {
+            this.name = name;
+            this.type = type;
+            this.value = value;
+            this.condition = condition;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package study.datajpa.repository;
+
+import study.datajpa.entity.Team;
+
+import java.util.List;
+
+public interface TeamRepositoryCustom {
+
+    // findAllById 와 달리 입력 순서를 보장하고, in 절을 batch 크기로 나누고, 영속성 컨텍스트에 있는 id 는 조회하지 않는다.
+    List<Team> findAllByIdInOrder(List<Long> ids);
+}
@@ -0,0 +1,24 @@
+package study.datajpa.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import study.datajpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+public class TeamRepositoryImpl implements TeamRepositoryCustom {
+
+    private final EntityManager em;
+    private final int batchSize;
+
+    public TeamRepositoryImpl(EntityManager em,
+                              @Value("${spring.jpa.properties.hibernate.default_batch_fetch_size}") int batchSize) {
+        this.em = em;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public List<Team> findAllByIdInOrder(List<Long> ids) {
+        return MultiLoadSupport.findAllByIdInOrder(em, Team.class, ids, batchSize);
+    }
+}
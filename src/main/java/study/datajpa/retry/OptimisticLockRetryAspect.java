@@ -0,0 +1,68 @@
+package study.datajpa.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ClassUtils;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * {@link RetryOnOptimisticLock} 처리
+ * - optimistic.lock.conflicts : 충돌 횟수
+ * - optimistic.lock.retries : 재시도 횟수
+ * - optimistic.lock.exhausted : 재시도를 다 쓰고 실패한 호출 수
+ * ex) /actuator/metrics/optimistic.lock.conflicts?tag=method:MemberService.increaseAge
+ *
+ * 트랜잭션 어드바이스(기본 LOWEST_PRECEDENCE)보다 먼저 실행되어야 재시도마다 새 트랜잭션이 시작된다.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@RequiredArgsConstructor
+public class OptimisticLockRetryAspect {
+
+    private final MeterRegistry registry;
+
+    @Around("@annotation(retry)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnOptimisticLock retry) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed(); // 바깥 트랜잭션이 롤백 대상이 되므로 여기서 재시도할 수 없다.
+        }
+
+        String method = ClassUtils.getUserClass(joinPoint.getTarget()).getSimpleName()
+                + "." + joinPoint.getSignature().getName();
+        long backoff = retry.backoff();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                registry.counter("optimistic.lock.conflicts", "method", method).increment();
+                if (attempt >= retry.maxAttempts()) {
+                    registry.counter("optimistic.lock.exhausted", "method", method).increment();
+                    throw e;
+                }
+                registry.counter("optimistic.lock.retries", "method", method).increment();
+                log.debug("optimistic lock conflict on {} (attempt {}), retrying", method, attempt);
+                sleep(backoff);
+                backoff = Math.min(backoff * 2, retry.maxBackoff());
+            }
+        }
+    }
+
+    // 0 ~ backoff 사이 랜덤 대기 (full jitter)
+    private void sleep(long backoff) throws InterruptedException {
+        if (backoff > 0) {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoff + 1));
+        }
+    }
+}
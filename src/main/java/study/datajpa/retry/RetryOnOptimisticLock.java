@@ -0,0 +1,30 @@
+package study.datajpa.retry;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 낙관적 락 충돌(@Version)이 나면 메서드를 처음부터 다시 실행한다.
+ * 트랜잭션 단위로 다시 실행해야 하기 때문에 @Transactional 과 같이 붙이면 재시도가 트랜잭션 바깥에서 동작한다.
+ * 이미 진행 중인 트랜잭션 안에서 호출되면 (영속성 컨텍스트가 이미 오래된 값을 들고 있어서) 재시도하지 않고 예외를 그대로 던진다.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnOptimisticLock {
+
+    /**
+     * 최초 실행을 포함한 최대 실행 횟수
+     */
+    int maxAttempts() default 5;
+
+    /**
+     * 첫 재시도 전 대기 시간(ms), 재시도마다 두배씩 늘어나고 maxBackoff 를 넘지 않는다. (동시에 재시도하지 않도록 랜덤 jitter)
+     */
+    long backoff() default 10;
+
+    long maxBackoff() default 200;
+}
@@ -0,0 +1,31 @@
+package study.datajpa.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.retry.RetryOnOptimisticLock;
+
+import javax.persistence.EntityNotFoundException;
+
+/**
+ * 회원 수정
+ * findLockByUsername (select ... for update) 처럼 row 를 잠그지 않고 @Version 으로 충돌만 확인한다.
+ * 충돌하면 새 트랜잭션에서 최신 값을 다시 읽어서 처음부터 다시 실행한다.
+ */
+@Service
+@RequiredArgsConstructor
+public class MemberService {
+
+    private final MemberRepository memberRepository;
+
+    @RetryOnOptimisticLock(maxAttempts = 10)
+    @Transactional
+    public Member increaseAge(Long memberId, int amount) {
+        Member member = memberRepository.findById(memberId)
+                .orElseThrow(() -> new EntityNotFoundException("member not found: " + memberId));
+        member.setAge(member.getAge() + amount);
+        return member;
+    }
+}
@@ -0,0 +1,104 @@
+package study.datajpa.util;
+
+import org.springframework.util.ClassUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 조회 결과 row(Object[]) -> DTO 생성자 호출
+ * 생성자는 (DTO 타입, 컬럼 타입) 조합마다 한번만 찾아서 MethodHandle 로 만들어두고 재사용한다.
+ * row 마다 생성자를 찾거나 리플렉션(Constructor.newInstance)으로 호출하지 않는다.
+ */
+public final class RowConstructor<T> {
+
+    private static final ConcurrentMap<Shape, RowConstructor<?>> CACHE = new ConcurrentHashMap<>();
+
+    private final Class<T> type;
+    private final MethodHandle handle; // (Object[]) -> Object
+
+    private RowConstructor(Class<T> type, MethodHandle handle) {
+        this.type = type;
+        this.handle = handle;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> RowConstructor<T> of(Class<T> type, Class<?>... columnTypes) {
+        return (RowConstructor<T>) CACHE.computeIfAbsent(new Shape(type, columnTypes), RowConstructor::create);
+    }
+
+    public T newInstance(Object[] row) {
+        try {
+            return type.cast((Object) handle.invokeExact(row));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(type.getName() + " 생성 실패", e);
+        }
+    }
+
+    private static RowConstructor<?> create(Shape shape) {
+        Constructor<?> constructor = resolve(shape.type, shape.columnTypes);
+        try {
+            MethodHandle handle = MethodHandles.publicLookup().unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, shape.columnTypes.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+            return new RowConstructor<>(shape.type, handle);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException(shape.type.getName() + " 의 public 생성자가 필요합니다.", e);
+        }
+    }
+
+    // 타입이 정확히 같은 생성자 -> 없으면 컬럼 타입을 받을 수 있는 (박싱 포함) 생성자
+    private static Constructor<?> resolve(Class<?> type, Class<?>[] columnTypes) {
+        try {
+            return type.getConstructor(columnTypes);
+        } catch (NoSuchMethodException e) {
+            for (Constructor<?> constructor : type.getConstructors()) {
+                Class<?>[] parameterTypes = constructor.getParameterTypes();
+                if (parameterTypes.length == columnTypes.length && assignable(parameterTypes, columnTypes)) {
+                    return constructor;
+                }
+            }
+            throw new IllegalArgumentException(type.getName() + " 에 " + Arrays.toString(columnTypes) + " 를 받는 생성자가 없습니다.");
+        }
+    }
+
+    private static boolean assignable(Class<?>[] parameterTypes, Class<?>[] columnTypes) {
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (!ClassUtils.isAssignable(parameterTypes[i], columnTypes[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Shape {
+        private final Class<?> type;
+        private final Class<?>[] columnTypes;
+
+        Shape(Class<?> type, Class<?>[] columnTypes) {
+            this.type = type;
+            this.columnTypes = columnTypes.clone();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Shape)) return false;
+            Shape shape = (Shape) o;
+            return type.equals(shape.type) && Arrays.equals(columnTypes, shape.columnTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, Arrays.hashCode(columnTypes));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package study.datajpa.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 시간 순서로 증가하는 문자열 id (ULID 형식, 26자)
+ * - 앞 48비트 : 밀리초 시각, 다음 16비트 : 같은 밀리초 안에서의 순번, 나머지 64비트 : 랜덤
+ * - 생성 순서대로 정렬되기 때문에 PK 인덱스의 끝에만 추가된다. (UUID 처럼 인덱스 중간에 끼워넣지 않음)
+ * - Crockford base32 로 인코딩해서 문자열 비교 순서 = 생성 순서
+ */
+public final class TimeOrderedIdGenerator {
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int LENGTH = 26;
+    private static final int MAX_SEQUENCE = 0xFFFF;
+
+    private static long lastMillis = -1L;
+    private static int sequence;
+
+    private TimeOrderedIdGenerator() {
+    }
+
+    public static String generate() {
+        long timeAndSequence = nextTimeAndSequence();
+        return encode(timeAndSequence, ThreadLocalRandom.current().nextLong());
+    }
+
+    // 시계가 뒤로 가거나 같은 밀리초에 순번을 다 쓰면 마지막 시각을 1ms 앞당겨서 순서를 지킨다.
+    private static synchronized long nextTimeAndSequence() {
+        long now = System.currentTimeMillis();
+        if (now > lastMillis) {
+            lastMillis = now;
+            sequence = 0;
+        } else if (++sequence > MAX_SEQUENCE) {
+            lastMillis++;
+            sequence = 0;
+        }
+        return (lastMillis << 16) | sequence;
+    }
+
+    private static String encode(long high, long low) {
+        char[] chars = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (low & 31)];
+            low = (low >>> 5) | (high << 59);
+            high >>>= 5;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,59 @@
+package study.datajpa.web;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import study.datajpa.dto.MemberValidator;
+import study.datajpa.repository.MemberRepository;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 회원 단건 조회(/members/{id}, /members2/{id}) 조건부 GET
+ * 컨트롤러(엔티티 조회, 도메인 클래스 컨버터) 전에 id, version, lastModifiedDate 만 조회해서
+ * If-None-Match / If-Modified-Since 가 일치하면 304 로 바로 응답한다.
+ * 변경되었으면 ETag, Last-Modified 헤더를 붙이고 컨트롤러를 그대로 실행한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final MemberRepository memberRepository;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return true;
+        }
+        Long id = memberId(request);
+        if (id == null) {
+            return true; // {id} 경로 변수가 없는 핸들러
+        }
+
+        Optional<MemberValidator> validator = memberRepository.findValidatorById(id);
+        if (validator.isEmpty()) {
+            return true; // 없는 회원은 컨트롤러에서 처리
+        }
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        return !webRequest.checkNotModified(validator.get().etag(), validator.get().lastModifiedMillis());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Long memberId(HttpServletRequest request) {
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables == null || variables.get("id") == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(variables.get("id"));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package study.datajpa.web;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.dto.MemberSnapshot;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.event.EntityChangedEvent;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 회원 스냅샷 : 생성자 표현식으로 조회해서 (엔티티를 만들지 않음) 잠깐 캐시한다.
+ * 캐시에 없는 id 들은 default_batch_fetch_size 개씩 in 쿼리로 조회한다.
+ * 회원이 변경되면 해당 회원을, 팀 변경이나 벌크 수정이면 전체를 무효화한다. (PageCountCache 와 같이 변경 즉시 + 트랜잭션 종료 후)
+ * 쓰기 트랜잭션 안에서는 커밋 전 변경이 다른 트랜잭션에 보이지 않도록 캐시를 거치지 않고 조회한다.
+ */
+@Component
+public class MemberSnapshotLoader implements SnapshotLoader<MemberSnapshot> {
+
+    private final EntityManager em;
+    private final int batchSize;
+    private final Cache<Long, MemberSnapshot> cache;
+
+    public MemberSnapshotLoader(EntityManager em,
+                                @Value("${spring.jpa.properties.hibernate.default_batch_fetch_size}") int batchSize,
+                                @Value("${member.snapshot-cache.ttl}") Duration ttl,
+                                @Value("${member.snapshot-cache.max-size}") long maxSize) {
+        this.em = em;
+        this.batchSize = batchSize;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    @Override
+    public Class<MemberSnapshot> type() {
+        return MemberSnapshot.class;
+    }
+
+    @Override
+    public Map<Long, MemberSnapshot> findAllById(Collection<Long> ids) {
+        if (inWritableTransaction()) {
+            return load(ids); // 커밋 전 변경이 보일 수 있어서 캐시에 넣지 않는다.
+        }
+        return cache.getAll(ids, this::load);
+    }
+
+    private Map<Long, MemberSnapshot> load(Iterable<? extends Long> missing) {
+        List<Long> ids = new ArrayList<>();
+        missing.forEach(ids::add);
+        Map<Long, MemberSnapshot> snapshots = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            em.createQuery(
+                            "select new study.datajpa.dto.MemberSnapshot(m.id, m.username, m.age, t.name)" +
+                                    " from Member m left join m.team t where m.id in :ids", MemberSnapshot.class)
+                    .setParameter("ids", ids.subList(from, Math.min(from + batchSize, ids.size())))
+                    .setHint(QueryHints.HINT_READONLY, true)
+                    .getResultList()
+                    .forEach(snapshot -> snapshots.put(snapshot.getId(), snapshot));
+        }
+        return snapshots;
+    }
+
+    private boolean inWritableTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    @EventListener
+    public void onChanged(EntityChangedEvent event) {
+        invalidate(event);
+    }
+
+    // 롤백도 포함 : 트랜잭션 중에 다른 트랜잭션이 다시 캐시한 스냅샷을 지운다.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void afterCompletion(EntityChangedEvent event) {
+        invalidate(event);
+    }
+
+    private void invalidate(EntityChangedEvent event) {
+        if (Member.class.isAssignableFrom(event.getEntityType()) && !event.isBulk()) {
+            cache.invalidate(((Member) event.getEntity()).getId());
+        } else if (Member.class.isAssignableFrom(event.getEntityType()) || Team.class.isAssignableFrom(event.getEntityType())) {
+            cache.invalidateAll();
+        }
+    }
+}
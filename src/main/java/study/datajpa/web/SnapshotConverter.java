@@ -0,0 +1,96 @@
+package study.datajpa.web;
+
+import org.springframework.core.CollectionFactory;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.converter.ConditionalGenericConverter;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 도메인 클래스 컨버터(DomainClassConverter) 대신 id -> 읽기 전용 스냅샷 변환
+ * - 등록된 SnapshotLoader 의 타입만 변환한다. (엔티티 타입은 지금처럼 DomainClassConverter 가 처리)
+ * - "1,2,3" 이나 ?ids=1&ids=2 를 List 로 받으면 id 마다 조회하지 않고 한번에 조회한다.
+ * - 없는 id 는 단건이면 null (DomainClassConverter 와 동일), 목록이면 빠진다.
+ */
+public class SnapshotConverter implements ConditionalGenericConverter {
+
+    private final Map<Class<?>, SnapshotLoader<?>> loaders;
+
+    public SnapshotConverter(List<SnapshotLoader<?>> loaders) {
+        this.loaders = loaders.stream().collect(Collectors.toMap(SnapshotLoader::type, Function.identity()));
+    }
+
+    @Override
+    public Set<ConvertiblePair> getConvertibleTypes() {
+        Set<ConvertiblePair> pairs = new HashSet<>();
+        for (Class<?> type : loaders.keySet()) {
+            pairs.add(new ConvertiblePair(String.class, type));
+            pairs.add(new ConvertiblePair(Long.class, type));
+        }
+        pairs.add(new ConvertiblePair(String.class, Collection.class));
+        pairs.add(new ConvertiblePair(String[].class, Collection.class));
+        return pairs;
+    }
+
+    @Override
+    public boolean matches(TypeDescriptor sourceType, TypeDescriptor targetType) {
+        return loaders.containsKey(snapshotType(targetType));
+    }
+
+    @Override
+    public Object convert(Object source, TypeDescriptor sourceType, TypeDescriptor targetType) {
+        if (source == null) {
+            return null;
+        }
+        Class<?> type = snapshotType(targetType);
+        SnapshotLoader<?> loader = loaders.get(type);
+        List<Long> ids = ids(source);
+
+        Map<Long, ?> snapshots = ids.isEmpty() ? Map.of() : loader.findAllById(ids);
+        if (!targetType.isCollection()) {
+            return ids.isEmpty() ? null : snapshots.get(ids.get(0));
+        }
+
+        Collection<Object> result = CollectionFactory.createCollection(targetType.getType(), type, ids.size());
+        for (Long id : ids) {
+            Object snapshot = snapshots.get(id);
+            if (snapshot != null) {
+                result.add(snapshot);
+            }
+        }
+        return result;
+    }
+
+    private Class<?> snapshotType(TypeDescriptor targetType) {
+        if (targetType.isCollection()) {
+            TypeDescriptor elementType = targetType.getElementTypeDescriptor();
+            return elementType == null ? null : elementType.getType();
+        }
+        return targetType.getType();
+    }
+
+    private List<Long> ids(Object source) {
+        if (source instanceof Long) {
+            return List.of((Long) source);
+        }
+        String[] values = source instanceof String[]
+                ? (String[]) source
+                : StringUtils.commaDelimitedListToStringArray((String) source);
+        List<Long> ids = new ArrayList<>(values.length);
+        Arrays.stream(values)
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .map(Long::valueOf)
+                .forEach(ids::add);
+        return ids;
+    }
+}
@@ -0,0 +1,18 @@
+package study.datajpa.web;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * id -> 읽기 전용 스냅샷 조회 (SnapshotConverter 에 타입별로 등록)
+ * 빈으로 등록하면 그 타입을 @PathVariable, @RequestParam 으로 받을 수 있다.
+ */
+public interface SnapshotLoader<T> {
+
+    Class<T> type();
+
+    /**
+     * 여러 id 를 한번에 조회한다. 없는 id 는 결과에서 빠진다.
+     */
+    Map<Long, T> findAllById(Collection<Long> ids);
+}
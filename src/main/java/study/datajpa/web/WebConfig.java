@@ -0,0 +1,43 @@
+package study.datajpa.web;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final MemberConditionalGetInterceptor memberConditionalGetInterceptor;
+    private final List<SnapshotLoader<?>> snapshotLoaders;
+
+    // SnapshotLoader 빈이 있는 타입은 엔티티 대신 캐시된 스냅샷으로 받는다. ex) @PathVariable("id") MemberSnapshot
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(new SnapshotConverter(snapshotLoaders));
+    }
+
+    // 숫자 id 경로만 : "/members/*" 는 /members/scroll, /members/export, /members/search 까지 잡는다.
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(memberConditionalGetInterceptor)
+                .addPathPatterns("/members/{id:\\d+}", "/members2/{id:\\d+}");
+    }
+
+    // 회원 목록(페이징) : 응답 본문 해시로 약한 ETag -> 바뀐게 없으면 본문 없이 304 (조회는 그대로 실행, 전송량만 줄어든다)
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> memberListEtagFilter() {
+        ShallowEtagHeaderFilter filter = new ShallowEtagHeaderFilter();
+        filter.setWriteWeakETag(true);
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/members");
+        return registration;
+    }
+}
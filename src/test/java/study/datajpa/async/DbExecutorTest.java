@@ -0,0 +1,142 @@
+package study.datajpa.async;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.AsyncMemberRepository;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@SpringBootTest
+class DbExecutorTest {
+
+    @Autowired
+    AsyncMemberRepository asyncMemberRepository;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    public void asyncRepository() throws Exception {
+        // given
+        Member member = memberRepository.save(new Member("async", 10));
+
+        // when
+        Optional<String> username = asyncMemberRepository.findUsernameById(member.getId()).get(10, TimeUnit.SECONDS);
+        Page<MemberDto> page = asyncMemberRepository.findAllDto(PageRequest.of(0, 1)).get(10, TimeUnit.SECONDS);
+
+        // then
+        assertThat(username).contains("async");
+        assertThat(page.getContent()).hasSize(1);
+    }
+
+    /**
+     * 실행 중(1) + 대기(1) 을 넘는 작업은 바로 거절되고, 자리가 나면 다시 받는다.
+     */
+    @Test
+    public void rejectWhenFull() throws Exception {
+        // given
+        DbExecutor dbExecutor = new DbExecutor(transactionManager, new SimpleMeterRegistry(), 1, 1, false);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            CompletableFuture<Boolean> running = dbExecutor.supply(() -> await(release));
+            CompletableFuture<Boolean> queued = dbExecutor.supply(() -> true);
+
+            // when
+            CompletableFuture<Boolean> rejected = dbExecutor.supply(() -> true);
+
+            // then
+            assertThatThrownBy(rejected::get)
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(DbExecutorBusyException.class);
+
+            release.countDown();
+            assertThat(running.get(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(queued.get(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(dbExecutor.supply(() -> true).get(10, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            release.countDown();
+            dbExecutor.shutdown();
+        }
+    }
+
+    /**
+     * 가상 스레드 실행기에서도 동시에 트랜잭션을 잡는 작업은 threads(1) 개까지만
+     */
+    @Test
+    public void virtualThreadsAreLimitedToThreads() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "가상 스레드는 Java 21 이상");
+
+        // given
+        DbExecutor dbExecutor = new DbExecutor(transactionManager, new SimpleMeterRegistry(), 1, 10, true);
+        AtomicInteger inTask = new AtomicInteger();
+        AtomicInteger maxInTask = new AtomicInteger();
+        try {
+            // when
+            List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                futures.add(dbExecutor.supply(() -> {
+                    maxInTask.accumulateAndGet(inTask.incrementAndGet(), Math::max);
+                    sleep(50);
+                    inTask.decrementAndGet();
+                    return isVirtual(Thread.currentThread());
+                }));
+            }
+
+            // then
+            for (CompletableFuture<Boolean> future : futures) {
+                assertThat(future.get(10, TimeUnit.SECONDS)).isTrue();
+            }
+            assertThat(maxInTask.get()).isEqualTo(1);
+        } finally {
+            dbExecutor.shutdown();
+        }
+    }
+
+    // 소스 레벨이 11 이라서 Thread.isVirtual() 은 리플렉션으로 호출한다.
+    private boolean isVirtual(Thread thread) {
+        try {
+            return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
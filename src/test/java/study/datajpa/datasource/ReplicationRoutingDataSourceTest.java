@@ -0,0 +1,89 @@
+package study.datajpa.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 로컬 H2 인메모리 DB 두개(primary, replica)로 라우팅 확인
+ * 각 DB 의 db_name 테이블에 자기 이름을 넣어두고 어느 DB 에서 조회했는지 확인한다.
+ */
+class ReplicationRoutingDataSourceTest {
+
+    JdbcTemplate primaryJdbc;
+    JdbcTemplate replicaJdbc;
+    ReplicationRoutingDataSource routingDataSource;
+    ReplicaSelector replicaSelector;
+    JdbcTemplate jdbcTemplate;
+    TransactionTemplate writeTransaction;
+    TransactionTemplate readOnlyTransaction;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = h2("routing-primary");
+        DataSource replica = h2("routing-replica");
+        primaryJdbc = new JdbcTemplate(primary);
+        replicaJdbc = new JdbcTemplate(replica);
+        primaryJdbc.execute("create table db_name (name varchar(20))");
+        primaryJdbc.update("insert into db_name values ('primary')");
+        replicaJdbc.execute("create table db_name (name varchar(20))");
+        replicaJdbc.update("insert into db_name values ('replica')");
+        replicaJdbc.execute("create table replica_lag (seconds int)");
+        replicaJdbc.update("insert into replica_lag values (0)");
+
+        replicaSelector = new ReplicaSelector(Map.of("replica-0", replica), Duration.ofSeconds(5), "select seconds from replica_lag");
+        routingDataSource = new ReplicationRoutingDataSource(primary, replicaSelector);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primaryJdbc.execute("drop all objects");
+        replicaJdbc.execute("drop all objects");
+    }
+
+    @Test
+    public void readOnlyTransactionGoesToReplica() {
+        assertThat(readOnlyTransaction.execute(status -> currentDb())).isEqualTo("replica");
+        assertThat(writeTransaction.execute(status -> currentDb())).isEqualTo("primary");
+        assertThat(currentDb()).isEqualTo("primary"); // 트랜잭션 밖
+    }
+
+    @Test
+    public void laggingReplicaFallsBackToPrimary() {
+        replicaJdbc.update("update replica_lag set seconds = 60");
+        replicaSelector.refresh();
+
+        assertThat(readOnlyTransaction.execute(status -> currentDb())).isEqualTo("primary");
+
+        replicaJdbc.update("update replica_lag set seconds = 1");
+        replicaSelector.refresh();
+
+        assertThat(readOnlyTransaction.execute(status -> currentDb())).isEqualTo("replica");
+    }
+
+    private String currentDb() {
+        return jdbcTemplate.queryForObject("select name from db_name", String.class);
+    }
+
+    private DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
@@ -79,4 +79,20 @@ class MemberTest {
         System.out.println("findMember.getCreatedBy() = " + findMember.getCreatedBy());
         System.out.println("findMember.getLastModifiedBy() = " + findMember.getLastModifiedBy());
     }
+
+    /**
+     * 등록자는 트랜잭션마다 한번만 조회한다. (같은 트랜잭션에서 저장한 엔티티는 등록자가 같다)
+     */
+    @Test
+    public void auditorResolvedOncePerTransaction() {
+        // given
+        Member member1 = memberRepository.save(new Member("audit1"));
+        Member member2 = memberRepository.save(new Member("audit2"));
+
+        // then
+        assertNotNull(member1.getCreatedBy());
+        assertEquals(member1.getCreatedBy(), member2.getCreatedBy());
+        assertEquals(member1.getCreatedBy(), member1.getLastModifiedBy());
+        assertNotNull(member1.getCreatedDate());
+    }
 }
\ No newline at end of file
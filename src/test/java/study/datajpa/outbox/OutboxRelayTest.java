@@ -0,0 +1,122 @@
+package study.datajpa.outbox;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.event.EntityChangedEvent;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 아웃박스는 변경과 같은 트랜잭션에서 기록되고 커밋된 뒤에 relay 가 읽기 때문에 테스트 트랜잭션(@Transactional) 없이 실행한다.
+@SpringBootTest
+class OutboxRelayTest {
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired OutboxRelay outboxRelay;
+    @Autowired InMemoryOutboxSink sink;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    public void relayEntityChangesInOrder() {
+        // given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Member member = memberRepository.save(new Member("outbox", 10));
+        transactionTemplate.executeWithoutResult(status -> {
+            Member findMember = memberRepository.findById(member.getId()).get();
+            findMember.setAge(11);
+        });
+
+        // when
+        outboxRelay.drain();
+
+        // then
+        List<EntityChangedEvent.Type> types = sink.messages().stream()
+                .filter(message -> "Member".equals(message.getAggregateType()))
+                .filter(message -> member.getId().toString().equals(message.getAggregateId()))
+                .map(OutboxMessage::getEventType)
+                .collect(Collectors.toList());
+        assertThat(types).containsExactly(EntityChangedEvent.Type.CREATED, EntityChangedEvent.Type.UPDATED);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from outbox_event", Long.class)).isZero();
+    }
+
+    @Test
+    public void rolledBackChangeIsNotRecorded() {
+        // given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Long memberId = transactionTemplate.execute(status -> {
+            Member member = memberRepository.save(new Member("outboxRollback", 10));
+            memberRepository.flush(); // postFlush 에서 아웃박스 row 를 쓰고, 롤백으로 같이 사라져야 한다.
+            status.setRollbackOnly();
+            return member.getId();
+        });
+        String aggregateId = memberId.toString();
+
+        // then : relay 가 읽기 전에 테이블과 싱크에 이 회원 이벤트가 없어야 한다.
+        assertThat(outboxCount(aggregateId)).isZero();
+        assertThat(sink.messages()).noneMatch(message -> isMember(message, aggregateId));
+
+        // relay 후에도 전달된 것이 없어야 한다.
+        outboxRelay.drain();
+        assertThat(sink.messages()).noneMatch(message -> isMember(message, aggregateId));
+        assertThat(memberRepository.findById(memberId)).isEmpty();
+    }
+
+    /**
+     * 다른 노드가 잠금을 쥐고 있으면 전달하지 않고, 잠금이 풀리면 이어서 전달한다.
+     */
+    @Test
+    public void relayOnlyWhileHoldingLeaderLock() {
+        // given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        outboxRelay.drain(); // 잠금 row 생성
+        Member member = memberRepository.save(new Member("outboxLeader", 10));
+        String aggregateId = member.getId().toString();
+
+        // when : 다른 노드가 잠금을 쥔 동안
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("select name from outbox_relay_lock for update", String.class);
+
+            // then
+            assertThat(outboxRelay.drain()).isZero();
+            assertThat(outboxCount(aggregateId)).isEqualTo(1);
+        });
+
+        outboxRelay.drain();
+        assertThat(outboxCount(aggregateId)).isZero();
+        assertThat(sink.messages()).anyMatch(message -> isMember(message, aggregateId));
+    }
+
+    @Test
+    public void bulkUpdateIsRecorded() {
+        // given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // when
+        transactionTemplate.executeWithoutResult(status -> memberRepository.bulkAgePlus(1_000_000));
+        outboxRelay.drain();
+
+        // then
+        assertThat(sink.messages())
+                .anyMatch(message -> message.getEventType() == EntityChangedEvent.Type.BULK_UPDATED
+                        && "Member".equals(message.getAggregateType())
+                        && message.getAggregateId() == null);
+    }
+
+    private long outboxCount(String aggregateId) {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from outbox_event where aggregate_type = 'Member' and aggregate_id = ?", Long.class, aggregateId);
+    }
+
+    private boolean isMember(OutboxMessage message, String aggregateId) {
+        return "Member".equals(message.getAggregateType()) && aggregateId.equals(message.getAggregateId());
+    }
+}
@@ -5,7 +5,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import study.datajpa.entity.Item;
 
-import static org.junit.jupiter.api.Assertions.*;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest
 class ItemRepositoryTest {
@@ -20,4 +22,30 @@ class ItemRepositoryTest {
 
 
     }
+
+    @Test
+    public void insertAll() {
+        // given
+        Item existing = Item.create();
+        itemRepository.save(existing);
+        Item item1 = Item.create();
+        Item item2 = Item.create();
+
+        // when
+        ItemInsertResult result = itemRepository.insertAll(Arrays.asList(item1, existing, item2, item1));
+
+        // then
+        assertThat(result.getInserted()).containsExactly(item1.getId(), item2.getId());
+        assertThat(result.getConflicts()).containsExactly(existing.getId(), item1.getId());
+        assertThat(itemRepository.findById(item2.getId())).isPresent();
+    }
+
+    @Test
+    public void timeOrderedId() {
+        String first = Item.create().getId();
+        String second = Item.create().getId();
+
+        assertThat(first).hasSize(26);
+        assertThat(second).isGreaterThan(first);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 구간마다 새 트랜잭션으로 커밋하기 때문에 테스트 트랜잭션(@Transactional) 없이 실행한다.
+@SpringBootTest(properties = {"member.bulk-update.chunk-size=3", "member.bulk-update.threads=2"})
+class MemberBulkUpdateExecutorTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberBulkUpdateExecutor memberBulkUpdateExecutor;
+
+    @Test
+    public void bulkAgePlusByRange() {
+        // given
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            members.add(new Member("range" + i, 900 + i));
+        }
+        memberRepository.saveAllBatched(members);
+
+        // when
+        AtomicInteger chunks = new AtomicInteger();
+        BulkUpdateResult result = memberBulkUpdateExecutor.bulkAgePlus(905,
+                (range, updatedRows, completedChunks, totalChunks) -> chunks.incrementAndGet());
+
+        // then
+        assertThat(result.isCompleted()).isTrue();
+        assertThat(result.getUpdatedRows()).isEqualTo(5);
+        assertThat(result.getCompletedRanges()).hasSize(2); // 대상 5건을 3건씩 끊은 구간
+        assertThat(chunks.get()).isEqualTo(result.getCompletedRanges().size());
+        assertThat(memberRepository.findMemberByUsername("range9").getAge()).isEqualTo(910);
+        assertThat(memberRepository.findMemberByUsername("range4").getAge()).isEqualTo(904);
+    }
+}
@@ -0,0 +1,169 @@
+package study.datajpa.repository;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// 워커마다 자기 트랜잭션으로 claim -> 처리 -> 커밋 하기 때문에 테스트 트랜잭션(@Transactional) 없이 실행한다.
+@SpringBootTest
+class MemberClaimRepositoryTest {
+
+    private static final int QUEUED_AGE = -1; // claim 대상 (다른 테스트 데이터와 겹치지 않게 음수)
+    private static final int DONE_AGE = 0;
+    private static final int MEMBERS = 200;
+    private static final int BATCH = 10;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    /**
+     * 워커 수를 늘려가며 모든 회원이 정확히 한번씩 처리되는지 확인한다.
+     * H2 는 for update 로 실행되기 때문에 앞 워커의 커밋을 기다린 뒤 (조건을 다시 확인해서) 다음 row 를 잡는다.
+     */
+    @Test
+    public void claimInParallel() throws Exception {
+        for (int workers : new int[]{1, 2, 4}) {
+            // given
+            List<Member> members = new ArrayList<>();
+            for (int i = 0; i < MEMBERS; i++) {
+                members.add(new Member("claim" + workers + "_" + i, QUEUED_AGE));
+            }
+            memberRepository.saveAllBatched(members);
+
+            // when
+            Map<Long, AtomicInteger> claimed = new ConcurrentHashMap<>();
+            drain(workers, claimed);
+
+            // then
+            assertThat(claimed).hasSize(MEMBERS);
+            assertThat(claimed.values()).allMatch(count -> count.get() == 1);
+        }
+    }
+
+    /**
+     * 다른 워커가 잡고 있는 row 는 기다리지 않고 건너뛴다. (SKIP LOCKED 를 지원하는 DB 에서만 실행)
+     * 앞 워커가 트랜잭션을 열어둔 채로 다음 워커가 claim 하는 데 걸린 시간을 잰다.
+     */
+    @Test
+    public void claimDoesNotWaitForLockedRows() throws Exception {
+        assumeTrue(dialect().supportsSkipLocked(), "SKIP LOCKED 를 지원하지 않는 DB 방언");
+
+        // given
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < BATCH * 2; i++) {
+            members.add(new Member("skip" + i, QUEUED_AGE));
+        }
+        memberRepository.saveAllBatched(members);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService holder = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<Long>> held = holder.submit(() -> transactionTemplate.execute(status -> {
+                List<Long> ids = ids(memberRepository.claimByAgeLessThan(DONE_AGE, BATCH));
+                locked.countDown();
+                await(release);
+                return ids;
+            }));
+            assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // when
+            long start = System.nanoTime();
+            List<Long> next = transactionTemplate.execute(status ->
+                    ids(memberRepository.claimByAgeLessThan(DONE_AGE, BATCH)));
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            release.countDown();
+
+            // then
+            assertThat(elapsedMillis).as("잠긴 row 를 기다린 시간").isLessThan(500);
+            assertThat(next).hasSize(BATCH).doesNotContainAnyElementsOf(held.get(10, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            holder.shutdownNow();
+            drain(1, new ConcurrentHashMap<>()); // 다른 테스트가 세는 대기열을 비워둔다.
+        }
+    }
+
+    private Dialect dialect() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+
+    private static List<Long> ids(List<Member> members) {
+        return members.stream().map(Member::getId).collect(Collectors.toList());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain(int workers, Map<Long, AtomicInteger> claimed) throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                futures.add(executor.submit(() -> {
+                    int size;
+                    do {
+                        size = transactionTemplate.execute(status -> {
+                            List<Member> batch = memberRepository.claimByAgeLessThan(DONE_AGE, BATCH);
+                            for (Member member : batch) {
+                                process(member);
+                                claimed.computeIfAbsent(member.getId(), id -> new AtomicInteger()).incrementAndGet();
+                            }
+                            return batch.size();
+                        });
+                    } while (size > 0);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // 회원 한명 처리 (외부 호출 같은 작업 시간) -> 처리 완료 표시
+    private void process(Member member) {
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        member.setAge(DONE_AGE);
+    }
+}
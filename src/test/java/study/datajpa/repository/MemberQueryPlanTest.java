@@ -0,0 +1,171 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberSearchCondition;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.UsernameOnlyDto;
+
+import javax.persistence.EntityManager;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.datajpa.support.QueryPlanAssertions.assertNoTableScan;
+import static org.springframework.data.domain.PageRequest.of;
+
+/**
+ * username / age / id 로 찾는 회원 쿼리가 인덱스를 타는지 실행 계획으로 검증한다.
+ * (Member, Team 의 @Table(indexes) 를 지우거나 쿼리 조건을 바꾸면 여기서 실패)
+ * MemberRepository, MemberJpaRepository 에 선언한 쿼리는 검증 목록 또는 제외 목록(사유) 중 하나에 있어야 한다. (새 쿼리를 추가하면 여기서 실패)
+ *
+ * 프래그먼트 중 전체를 읽는 것 (검증 제외)
+ * - findMemberCustom, findMemberDtoByRows : 조건 없이 전체 조회하는 예제
+ * - streamMemberDto : 전체 내보내기 (커서로 끝까지 읽음)
+ * - findByNativeProjectionWithCachedCount / WithParallelCount : 조건 없는 네이티브 전체 페이징
+ * - findAllWithParallelCount : 조건이 호출한 쪽 Specification 에 달려 있음
+ */
+@Transactional
+@SpringBootTest
+class MemberQueryPlanTest {
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired MemberJpaRepository memberJpaRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired EntityManager em;
+
+    // 아래 테스트에서 실행 계획을 검증하는 MemberRepository 쿼리
+    private static final Set<String> CHECKED = Set.of(
+            "findByUsernameAndAgeGreaterThan", "findByUsername", "findUser", "findByNames",
+            "findListByUsername", "findMemberByUsername", "findOptionalByUsername",
+            "findKeysetFirst", "findKeysetAfter", "findEntityGraphByUsername", "findReadOnlyByUsername",
+            "findLockByUsername", "findValidatorById", "findProjectionsByUsername", "findProjectionsDtoByUsername",
+            "findUsernameOnlyViewByUsername", "findNestedViewByUsername", "findByNativeQuery", "bulkAgePlus");
+
+    // 조건 없이 테이블 전체를 읽도록 만든 쿼리 (이유)
+    private static final Map<String, String> FULL_SCAN_BY_DESIGN = Map.of(
+            "findUsernameList", "전체 username 목록, 쿼리 캐시 대상",
+            "findMemberDto", "전체 DTO 목록, 쿼리 캐시 대상",
+            "findByAge", "@Query 에 age 조건이 없는 페이징 / count 쿼리 분리 예제",
+            "findMemberFetchJoin", "전체 회원 + 팀 페치 조인 예제",
+            "findAll", "전체 회원 + 팀 @EntityGraph 예제",
+            "findMemberEntityGraph", "전체 회원 + 팀 JPQL @EntityGraph 예제",
+            "findMemberProjectionView", "조건 없는 전체 페이징",
+            "findByNativeProjection", "조건 없는 네이티브 전체 페이징");
+
+    // MemberJpaRepository (순수 JPA 리포지토리) 도 같은 방식으로 관리
+    private static final Set<String> JPA_CHECKED = Set.of(
+            "findByUsername", "findByUsernameAndAgeGreaterThen", "findByPage", "totalCount",
+            "findById", "find", "bulkAgePlus");
+
+    private static final Map<String, String> JPA_NOT_CHECKED = Map.of(
+            "findAll", "조건 없는 전체 조회",
+            "count", "조건 없는 전체 count",
+            "save", "insert (조회 조건 없음)",
+            "delete", "PK 로 지우는 delete (flush 시점에 실행)");
+
+    List<Member> members;
+
+    @BeforeEach
+    public void seed() {
+        members = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            members.add(new Member("plan" + i, i % 100));
+        }
+        memberRepository.saveAllBatched(members);
+        em.flush();
+        em.clear();
+        jdbcTemplate.execute("analyze table member");
+    }
+
+    @Test
+    public void memberRepositoryQueriesUseIndex() {
+        assertNoTableScan(jdbcTemplate, () -> memberRepository.findByUsernameAndAgeGreaterThan("plan1", 0), "member");
+        assertNoTableScan(jdbcTemplate, () -> memberRepository.findByUsername("plan1"), "member");
+        assertNoTableScan(jdbcTemplate, () -> memberRepository.findUser("plan1", 1), "member");
+        assertNoTableScan(jdbcTemplate, () -> memberRepository.findByNames(List.of("plan1", "plan2")), "member");
+        assertNoTableScan(jdbcTemplate, () -> memberRepository.findOptionalByUsername("plan1"), "member");
+        assertNoTableScan(jdbcTemplate, () -> memberRepository.findEntityGraphByUsername("plan1"), "member");
+        assertNoTableScan(jdbcTemplate, () -> memberRepository.findLockByUsername("plan1"), "member");
+        assertNoTableScan(jdbcTemplate, () -> memberRepository.findProjectionsByUsername("plan1"), "member");
+        assertNoTableScan(jdbcTemplate, () -> memberRepository.findByNativeQuery("plan1"), "member");
+        assertNoTableScan(jdbcTemplate, () -> memberRepository.findListByUsername("plan1"), "member");
+        assertNoTableScan(jdbcTemplate, () -> memberRepository.findMemberByUsername("plan1"), "member");
+        assertNoTableScan(jdbcTemplate, () -> memberRepository.findReadOnlyByUsername("plan1"), "member");
+        assertNoTableScan(jdbcTemplate, () -> memberRepository.findProjectionsDtoByUsername("plan1"), "member");
+        assertNoTableScan(jdbcTemplate,
+                () -> memberRepository.findProjectionsDtoByUsername("plan1", UsernameOnlyDto.class), "member");
+        assertNoTableScan(jdbcTemplate, () -> memberRepository.findUsernameOnlyViewByUsername("plan1"), "member");
+        assertNoTableScan(jdbcTemplate, () -> memberRepository.findNestedViewByUsername("plan1"), "member");
+        assertNoTableScan(jdbcTemplate, () -> memberRepository.findValidatorById(members.get(1).getId()), "member");
+        assertNoTableScan(jdbcTemplate,
+                () -> memberRepository.search(new MemberSearchCondition("plan1", null), of(0, 10)), "member");
+    }
+
+    @Test
+    public void keysetQueriesUseIndex() {
+        Member last = members.get(5);
+        assertNoTableScan(jdbcTemplate, () -> memberRepository.findKeysetFirst(of(0, 10)), "member");
+        assertNoTableScan(jdbcTemplate,
+                () -> memberRepository.findKeysetAfter(last.getUsername(), last.getId(), of(0, 10)), "member");
+    }
+
+    @Test
+    public void fragmentQueriesUseIndex() {
+        assertNoTableScan(jdbcTemplate, () -> memberRepository.findDtoByUsername("plan1", UsernameOnlyDto.class), "member");
+        assertNoTableScan(jdbcTemplate,
+                () -> memberRepository.findAllByIdInOrder(List.of(members.get(1).getId(), members.get(2).getId())), "member");
+        assertNoTableScan(jdbcTemplate, () -> memberRepository.findByAgeWithCachedCount(10, of(0, 3)), "member");
+        assertNoTableScan(jdbcTemplate, () -> memberRepository.findByAgeWithParallelCount(10, of(0, 3)), "member");
+        assertNoTableScan(jdbcTemplate, () -> memberRepository.claimByAgeLessThan(1, 3), "member");
+    }
+
+    // 벌크 수정도 where age >= ? 가 (age, username) 인덱스를 타야 한다. (대상이 적은 값으로 확인)
+    @Test
+    public void bulkUpdateUsesIndex() {
+        assertNoTableScan(jdbcTemplate, () -> memberRepository.bulkAgePlus(99), "member");
+        assertNoTableScan(jdbcTemplate, () -> memberJpaRepository.bulkAgePlus(99), "member");
+    }
+
+    @Test
+    public void everyMemberRepositoryQueryIsCheckedOrExempted() {
+        assertCheckedOrExempted(MemberRepository.class, CHECKED, FULL_SCAN_BY_DESIGN);
+    }
+
+    @Test
+    public void everyMemberJpaRepositoryQueryIsCheckedOrExempted() {
+        assertCheckedOrExempted(MemberJpaRepository.class, JPA_CHECKED, JPA_NOT_CHECKED);
+    }
+
+    private void assertCheckedOrExempted(Class<?> repository, Set<String> checked, Map<String, String> exempted) {
+        Set<String> declared = Stream.of(repository.getDeclaredMethods())
+                .filter(method -> Modifier.isPublic(method.getModifiers()) && !method.isSynthetic())
+                .map(Method::getName)
+                .collect(Collectors.toSet());
+
+        assertThat(declared).containsAll(checked).containsAll(exempted.keySet());
+        declared.removeAll(checked);
+        declared.removeAll(exempted.keySet());
+        assertThat(declared).as("실행 계획 검증도, 제외 사유도 없는 쿼리").isEmpty();
+    }
+
+    @Test
+    public void memberJpaRepositoryQueriesUseIndex() {
+        assertNoTableScan(jdbcTemplate, () -> memberJpaRepository.findByUsername("plan1"), "member");
+        assertNoTableScan(jdbcTemplate, () -> memberJpaRepository.findByUsernameAndAgeGreaterThen("plan1", 0), "member");
+        assertNoTableScan(jdbcTemplate, () -> memberJpaRepository.findByPage(10, 0, 3), "member");
+        assertNoTableScan(jdbcTemplate, () -> memberJpaRepository.totalCount(10), "member");
+        assertNoTableScan(jdbcTemplate, () -> memberJpaRepository.findById(members.get(3).getId()), "member");
+        assertNoTableScan(jdbcTemplate, () -> memberJpaRepository.find(members.get(4).getId()), "member");
+    }
+}
@@ -8,17 +8,28 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.cache.PageCountCache;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSearchCondition;
+import study.datajpa.dto.NestedClosedProjectionsView;
+import study.datajpa.dto.UsernameOnlyView;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
 import study.datajpa.entity.UsernameOnlyDto;
+import study.datajpa.support.ExpectedQueries;
 
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static study.datajpa.support.QueryCountAssertions.assertSelectCount;
 
 @Rollback(value = false)
 @Transactional
@@ -34,6 +45,9 @@ class MemberRepositoryTest {
     @Autowired
     EntityManager entityManager;
 
+    @Autowired
+    PageCountCache pageCountCache;
+
     @Test
     public void testMember() {
         Member member = new Member("memberA");
@@ -297,6 +311,7 @@ class MemberRepositoryTest {
     }
 
     @Test
+    @ExpectedQueries(select = 1)
     public void callCustom() {
         List<Member> memberCustom = memberRepository.findMemberCustom();
     }
@@ -453,4 +468,287 @@ class MemberRepositoryTest {
         }
     }
 
+    /**
+     * 키셋 페이징
+     * offset 대신 마지막으로 읽은 (username, id) 다음부터 조회
+     */
+    @Test
+    public void keysetPaging() {
+        // given
+        memberRepository.save(new Member("keyset1", 10));
+        memberRepository.save(new Member("keyset2", 10));
+        memberRepository.save(new Member("keyset2", 10)); // username 이 같으면 id 로 순서를 정한다.
+        memberRepository.save(new Member("keyset3", 10));
+
+        // when
+        // 다른 테스트 데이터와 섞이지 않도록 "keyset" 바로 다음부터 읽는다.
+        List<Member> first = memberRepository.findKeysetAfter("keyset", 0L, PageRequest.of(0, 2));
+        Member last = first.get(first.size() - 1);
+        List<Member> second = memberRepository.findKeysetAfter(last.getUsername(), last.getId(), PageRequest.of(0, 2));
+
+        // then
+        assertThat(first).extracting("username").containsExactly("keyset1", "keyset2");
+        assertThat(second).extracting("username").containsExactly("keyset2", "keyset3");
+        assertThat(second.get(0).getId()).isGreaterThan(last.getId());
+    }
+
+    /**
+     * count 캐시 페이징
+     * 같은 조건으로 다시 조회하면 캐시된 count 를 쓰고, 회원이 변경되면 무효화된다.
+     */
+    @Test
+    public void pagingWithCachedCount() {
+        // given
+        for (int i = 0; i < 4; i++) {
+            memberRepository.save(new Member("cached" + i, 77));
+        }
+        PageRequest pageRequest = PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "username"));
+
+        // when
+        Page<Member> page = memberRepository.findByAgeWithCachedCount(77, pageRequest);
+        memberRepository.save(new Member("cached4", 77)); // 엔티티 변경 -> count 캐시 무효화
+        Page<Member> afterSave = memberRepository.findByAgeWithCachedCount(77, pageRequest);
+        memberRepository.bulkAgePlus(77); // 벌크 수정 -> count 캐시 무효화
+        Page<Member> afterBulk = memberRepository.findByAgeWithCachedCount(77, pageRequest);
+
+        // then
+        assertThat(page.getContent().size()).isEqualTo(3);
+        assertThat(page.getTotalElements()).isEqualTo(4);
+        assertThat(afterSave.getTotalElements()).isEqualTo(5);
+        assertThat(afterBulk.getTotalElements()).isEqualTo(0);
+    }
+
+    /**
+     * 쓰기 트랜잭션 안에서 센 count 는 커밋 전 변경이 포함될 수 있으므로 캐시하지 않는다.
+     */
+    @Test
+    public void countInWritableTransactionIsNotCached() {
+        AtomicInteger counted = new AtomicInteger();
+
+        pageCountCache.getOrCount("select count(m) from Member m where m.age = :age", List.of(78),
+                List.of(Member.class), () -> counted.incrementAndGet());
+        pageCountCache.getOrCount("select count(m) from Member m where m.age = :age", List.of(78),
+                List.of(Member.class), () -> counted.incrementAndGet());
+
+        assertThat(counted.get()).isEqualTo(2);
+    }
+
+    /**
+     * count 하는 동안 커밋된 변경으로 무효화되면, 그 전에 시작한 count 는 캐시하지 않는다.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void countRacingInvalidationIsNotCached() {
+        String countQuery = "select count(m) from Member m where m.age = :age";
+
+        long first = pageCountCache.getOrCount(countQuery, List.of(79), List.of(Member.class), () -> {
+            pageCountCache.invalidate(Member.class); // count 도중 다른 트랜잭션 커밋
+            return 1;
+        });
+        long second = pageCountCache.getOrCount(countQuery, List.of(79), List.of(Member.class), () -> 2);
+
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isEqualTo(2);
+    }
+
+    @Test
+    public void saveAllBatched() {
+        // given
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            members.add(new Member("batch" + i, 30));
+        }
+
+        // when
+        int savedCount = memberRepository.saveAllBatched(members);
+
+        // then
+        assertThat(savedCount).isEqualTo(250);
+        assertThat(members).allMatch(member -> member.getId() != null);
+        assertThat(memberRepository.findListByUsername("batch249")).hasSize(1);
+    }
+
+    @Test
+    public void streamMemberDto() {
+        // given
+        Team team = new Team("exportTeam");
+        teamRepository.save(team);
+        memberRepository.save(new Member("export1", 10, team));
+        memberRepository.save(new Member("export2", 10, team));
+        memberRepository.save(new Member("export3", 10));
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        List<MemberDto> result;
+        try (Stream<MemberDto> stream = memberRepository.streamMemberDto(2)) {
+            result = stream.filter(dto -> dto.getUsername() != null && dto.getUsername().startsWith("export"))
+                    .collect(Collectors.toList());
+        }
+
+        // then
+        assertThat(result).extracting("teamName").containsExactly("exportTeam", "exportTeam", null);
+    }
+
+    @Test
+    public void findAllByIdInOrder() {
+        // given
+        Member member1 = memberRepository.save(new Member("multi1", 10));
+        Member member2 = memberRepository.save(new Member("multi2", 10));
+        Member member3 = memberRepository.save(new Member("multi3", 10));
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        List<Member> result = memberRepository.findAllByIdInOrder(
+                Arrays.asList(member3.getId(), -1L, member1.getId(), member2.getId()));
+
+        // then
+        assertThat(result).extracting("username").containsExactly("multi3", "multi1", "multi2");
+    }
+
+    /**
+     * 쿼리 수 검증
+     * 지연로딩은 default_batch_fetch_size 로 팀을 IN 쿼리 한번에 가져와서 1 + 1, 페치 조인은 select 한번
+     * (지연로딩이 팀 수만큼 select 하는 N + 1 로 돌아가면 실패한다)
+     */
+    @Test
+    public void queryCountOfFetchStrategies() {
+        // given
+        Team teamA = new Team("countTeamA");
+        Team teamB = new Team("countTeamB");
+        teamRepository.save(teamA);
+        teamRepository.save(teamB);
+        memberRepository.save(new Member("count1", 10, teamA));
+        memberRepository.save(new Member("count2", 10, teamB));
+        entityManager.flush();
+        entityManager.clear();
+
+        // then
+        assertSelectCount(1 + 1, () -> {
+            for (Member member : memberRepository.findMemberCustom()) {
+                if (member.getTeam() != null) {
+                    member.getTeam().getName();
+                }
+            }
+        });
+        entityManager.clear();
+
+        assertSelectCount(1, () -> {
+            for (Member member : memberRepository.findMemberFetchJoin()) {
+                member.getTeam().getName();
+            }
+        });
+    }
+
+    /**
+     * Projections 구현 클래스로 조회
+     * 프록시 없이 SELECT 절에서 계산한 값을 생성자로 바로 받는다.
+     */
+    @Test
+    public void projectionViews() {
+        // given
+        Team teamA = new Team("viewTeam");
+        entityManager.persist(teamA);
+        entityManager.persist(new Member("view1", 7, teamA));
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        List<UsernameOnlyView> usernameOnly = memberRepository.findUsernameOnlyViewByUsername("view1");
+        List<NestedClosedProjectionsView> nested = memberRepository.findNestedViewByUsername("view1");
+
+        // then
+        assertThat(usernameOnly.get(0).getUsername()).isEqualTo("view1 7"); // open projection 과 같은 결과
+        assertThat(nested.get(0).getTeam().getName()).isEqualTo("viewTeam");
+    }
+
+    @Test
+    public void projectionsByCachedConstructor() {
+        // given
+        Team teamA = new Team("rowTeam");
+        entityManager.persist(teamA);
+        entityManager.persist(new Member("row1", 0, teamA));
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        List<UsernameOnlyDto> result = memberRepository.findDtoByUsername("row1", UsernameOnlyDto.class);
+        List<MemberDto> memberDto = memberRepository.findMemberDtoByRows();
+
+        // then
+        assertThat(result).extracting("username").containsExactly("row1");
+        assertThat(memberDto).extracting("teamName").contains("rowTeam");
+    }
+
+    /**
+     * 검색 조건 -> MemberSpec 조합으로 검색 (값이 없는 조건은 빠진다)
+     */
+    @Test
+    public void searchByCondition() {
+        // given
+        Team teamA = new Team("searchTeam");
+        entityManager.persist(teamA);
+        entityManager.persist(new Member("search1", 0, teamA));
+        entityManager.persist(new Member("search2", 0, teamA));
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        Page<Member> byTeamAndUsername = memberRepository.search(
+                new MemberSearchCondition("search1", "searchTeam"), PageRequest.of(0, 10));
+        Page<Member> byTeam = memberRepository.search(
+                new MemberSearchCondition(null, "searchTeam"), PageRequest.of(0, 10, Sort.by("username")));
+
+        // then
+        assertThat(byTeamAndUsername.getContent()).extracting("username").containsExactly("search1");
+        assertThat(byTeam.getContent()).extracting("username").containsExactly("search1", "search2");
+    }
+
+    /**
+     * 같은 구조의 Specification 조합은 값이 달라도 같은 쿼리를 재사용하고,
+     * JpaSpecificationExecutor 에 넘겨도 같은 결과가 나온다.
+     */
+    @Test
+    public void searchByShapedSpecification() {
+        // given
+        Team teamA = new Team("shapeTeamA");
+        Team teamB = new Team("shapeTeamB");
+        entityManager.persist(teamA);
+        entityManager.persist(teamB);
+        entityManager.persist(new Member("shape1", 0, teamA));
+        entityManager.persist(new Member("shape2", 0, teamB));
+        entityManager.flush();
+        entityManager.clear();
+
+        ShapedSpecification<Member> first = MemberSpec.username("shape1").and(MemberSpec.teamName("shapeTeamA"));
+        ShapedSpecification<Member> second = MemberSpec.username("shape2").and(MemberSpec.teamName("shapeTeamB"));
+
+        // when
+        Page<Member> byFirst = memberRepository.search(first, PageRequest.of(0, 10));
+        Page<Member> bySecond = memberRepository.search(second, PageRequest.of(0, 10));
+        List<Member> byExecutor = memberRepository.findAll(second);
+
+        // then
+        assertThat(first.shape()).isEqualTo(second.shape());
+        assertThat(byFirst.getContent()).extracting("username").containsExactly("shape1");
+        assertThat(bySecond.getContent()).extracting("username").containsExactly("shape2");
+        assertThat(bySecond.getTotalElements()).isEqualTo(1);
+        assertThat(byExecutor).extracting("username").containsExactly("shape2");
+    }
+
+    /**
+     * 대량 저장은 저장한 회원만 분리하고, 먼저 조회해둔 엔티티는 계속 변경 감지된다.
+     */
+    @Test
+    public void saveAllBatchedKeepsOtherEntitiesManaged() {
+        // given
+        Member loaded = memberRepository.save(new Member("loadedBeforeBatch", 10));
+
+        // when
+        memberRepository.saveAllBatched(List.of(new Member("batchOther", 10)));
+
+        // then
+        assertThat(entityManager.contains(loaded)).isTrue();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// count 는 다른 커넥션에서 실행되기 때문에 커밋된 데이터로 확인한다. (테스트 트랜잭션 없이 실행)
+@SpringBootTest
+class ParallelPageExecutorTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Test
+    public void contentAndCountInParallel() {
+        // given
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            members.add(new Member("parallel" + i, 4242));
+        }
+        memberRepository.saveAllBatched(members);
+        PageRequest pageRequest = PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "username"));
+        Specification<Member> age = (root, query, cb) -> cb.equal(root.get("age"), 4242);
+
+        // when
+        Page<Member> byAge = memberRepository.findByAgeWithParallelCount(4242, pageRequest);
+        Page<Member> bySpec = memberRepository.findAllWithParallelCount(age, pageRequest);
+        Page<MemberProjection> byNative = memberRepository.findByNativeProjectionWithParallelCount(PageRequest.of(0, 3));
+
+        // then
+        assertThat(byAge.getTotalElements()).isEqualTo(5);
+        assertThat(byAge.getContent()).extracting("username").containsExactly("parallel4", "parallel3", "parallel2");
+        assertThat(bySpec.getTotalElements()).isEqualTo(5);
+        assertThat(bySpec.getContent()).extracting("username").containsExactly("parallel4", "parallel3", "parallel2");
+        assertThat(byNative.getContent()).hasSize(3);
+        assertThat(byNative.getTotalElements()).isGreaterThanOrEqualTo(5);
+    }
+
+    /**
+     * 쓰기 트랜잭션 안에서는 count 도 같은 트랜잭션에서 실행되어 커밋 전 변경이 보인다.
+     */
+    @Test
+    public void countInWritableTransactionSeesUncommittedRows() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            memberRepository.save(new Member("uncommitted1", 4343));
+            memberRepository.save(new Member("uncommitted2", 4343));
+            memberRepository.flush();
+
+            Page<Member> page = memberRepository.findByAgeWithParallelCount(4343, PageRequest.of(0, 1));
+
+            assertThat(page.getTotalElements()).isEqualTo(2);
+            status.setRollbackOnly();
+        });
+    }
+
+    /**
+     * 격리 수준을 지정하지 않은 읽기 전용 트랜잭션은 DB 기본 격리 수준(default-isolation)으로 판단한다.
+     * REPEATABLE_READ 가 기본인 DB (MySQL) 라면 같은 스냅샷을 보도록 호출한 스레드에서 센다.
+     */
+    @Test
+    public void countSequentiallyWhenDefaultIsolationIsRepeatableRead() {
+        ParallelPageExecutor executor = new ParallelPageExecutor(transactionManager, dataSource,
+                true, 1, 1, Duration.ofSeconds(1), Isolation.REPEATABLE_READ);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Thread caller = Thread.currentThread();
+        try {
+            Thread countThread = readOnly.execute(status -> {
+                AtomicReference<Thread> counted = new AtomicReference<>();
+                executor.page(PageRequest.of(0, 1), () -> List.of(1, 2), () -> {
+                    counted.set(Thread.currentThread());
+                    return 10;
+                });
+                return counted.get();
+            });
+
+            assertThat(countThread).isSameAs(caller);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package study.datajpa.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 스레드마다 자기 트랜잭션으로 커밋해야 충돌이 나기 때문에 테스트 트랜잭션(@Transactional) 없이 실행한다.
+@SpringBootTest
+class MemberServiceTest {
+
+    @Autowired
+    MemberService memberService;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    /**
+     * 같은 회원을 동시에 수정해도 충돌난 수정은 다시 실행되기 때문에 잃어버리는 수정이 없다.
+     */
+    @Test
+    public void increaseAgeConcurrently() throws Exception {
+        // given
+        Member member = memberRepository.save(new Member("optimistic", 0));
+        int threads = 4;
+        int updatesPerThread = 10;
+
+        // when
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < updatesPerThread; j++) {
+                        memberService.increaseAge(member.getId(), 1);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // then
+        Member findMember = memberRepository.findById(member.getId()).get();
+        assertThat(findMember.getAge()).isEqualTo(threads * updatesPerThread);
+        assertThat(findMember.getVersion()).isEqualTo((long) threads * updatesPerThread);
+    }
+}
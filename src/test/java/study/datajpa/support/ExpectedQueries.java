@@ -0,0 +1,31 @@
+package study.datajpa.support;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 테스트 메서드가 실행한 SQL 수 검증
+ * ex) @ExpectedQueries(select = 1) -> select 가 1번이 아니면 실패하고 실행된 SQL 을 보여준다.
+ * -1 은 검사하지 않음
+ *
+ * 테스트 트랜잭션 커밋 시점의 flush 는 포함되지 않는다. (테스트 본문에서 실행된 SQL 만 센다)
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryCountExtension.class)
+public @interface ExpectedQueries {
+
+    long select() default -1;
+
+    long insert() default -1;
+
+    long update() default -1;
+
+    long delete() default -1;
+
+    long total() default -1;
+}
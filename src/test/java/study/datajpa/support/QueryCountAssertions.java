@@ -0,0 +1,74 @@
+package study.datajpa.support;
+
+import study.datajpa.monitoring.StatementCounter;
+import study.datajpa.monitoring.StatementType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 코드 블록 단위 SQL 수 검증
+ * ex) assertSelectCount(1, () -> memberRepository.findMemberFetchJoin());
+ */
+public final class QueryCountAssertions {
+
+    private QueryCountAssertions() {
+    }
+
+    public static void assertSelectCount(long select, Runnable block) {
+        assertQueryCount(new Expected(select, -1, -1, -1, -1), block);
+    }
+
+    public static void assertQueryCount(Expected expected, Runnable block) {
+        StatementCounter.startRecording();
+        StatementCounter.Snapshot snapshot = StatementCounter.snapshot();
+        List<String> statements;
+        try {
+            block.run();
+        } finally {
+            statements = StatementCounter.stopRecording();
+        }
+        verify(expected, snapshot, statements);
+    }
+
+    static void verify(Expected expected, StatementCounter.Snapshot snapshot, List<String> statements) {
+        List<String> failures = new ArrayList<>();
+        check(failures, "select", expected.select, snapshot.since(StatementType.SELECT));
+        check(failures, "insert", expected.insert, snapshot.since(StatementType.INSERT));
+        check(failures, "update", expected.update, snapshot.since(StatementType.UPDATE));
+        check(failures, "delete", expected.delete, snapshot.since(StatementType.DELETE));
+        check(failures, "total", expected.total, snapshot.sinceTotal());
+        if (failures.isEmpty()) {
+            return;
+        }
+
+        StringBuilder message = new StringBuilder("쿼리 수가 예상과 다릅니다: ").append(String.join(", ", failures));
+        message.append("\n실행된 SQL (").append(statements.size()).append(")");
+        for (int i = 0; i < statements.size(); i++) {
+            message.append("\n  ").append(i + 1).append(". ").append(statements.get(i));
+        }
+        throw new AssertionError(message.toString());
+    }
+
+    private static void check(List<String> failures, String name, long expected, long actual) {
+        if (expected >= 0 && expected != actual) {
+            failures.add(name + " expected " + expected + " but was " + actual);
+        }
+    }
+
+    public static final class Expected {
+        private final long select;
+        private final long insert;
+        private final long update;
+        private final long delete;
+        private final long total;
+
+        public Expected(long select, long insert, long update, long delete, long total) {
+            this.select = select;
+            this.insert = insert;
+            this.update = update;
+            this.delete = delete;
+            this.total = total;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package study.datajpa.support;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import study.datajpa.monitoring.StatementCounter;
+
+import java.util.List;
+
+/**
+ * {@link ExpectedQueries} 처리
+ * 메서드에 붙은 확장은 SpringExtension 보다 나중에 등록되기 때문에
+ * 테스트 트랜잭션이 시작된 뒤에 세기 시작하고, 커밋되기 전에 검사한다.
+ */
+public class QueryCountExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(QueryCountExtension.class);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        StatementCounter.startRecording();
+        context.getStore(NAMESPACE).put("snapshot", StatementCounter.snapshot());
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        StatementCounter.Snapshot snapshot = context.getStore(NAMESPACE).remove("snapshot", StatementCounter.Snapshot.class);
+        List<String> statements = StatementCounter.stopRecording();
+        ExpectedQueries expected = context.getRequiredTestMethod().getAnnotation(ExpectedQueries.class);
+        if (expected == null || snapshot == null) {
+            return;
+        }
+        QueryCountAssertions.verify(new QueryCountAssertions.Expected(
+                expected.select(), expected.insert(), expected.update(), expected.delete(), expected.total()), snapshot, statements);
+    }
+}
@@ -0,0 +1,63 @@
+package study.datajpa.support;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.monitoring.StatementCounter;
+import study.datajpa.monitoring.StatementType;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 코드 블록이 실행한 SELECT / UPDATE / DELETE 의 실행 계획 검증 (H2 EXPLAIN, 벌크 수정의 where 조건 포함)
+ * 인덱스를 타지 못한 테이블은 H2 실행 계획에 "PUBLIC.MEMBER.tableScan" 처럼 나온다.
+ * ex) assertNoTableScan(jdbcTemplate, () -> memberRepository.findByUsername("member1"), "member");
+ */
+public final class QueryPlanAssertions {
+
+    private static final Set<StatementType> EXPLAINED = EnumSet.of(StatementType.SELECT, StatementType.UPDATE, StatementType.DELETE);
+    private static final Pattern TABLE_SCAN = Pattern.compile("\\.\"?(\\w+)\"?\\.tableScan");
+
+    private QueryPlanAssertions() {
+    }
+
+    public static void assertNoTableScan(JdbcTemplate jdbcTemplate, Runnable block, String... tables) {
+        Set<String> checked = Stream.of(tables).map(t -> t.toUpperCase(Locale.ROOT)).collect(Collectors.toSet());
+
+        StatementCounter.startRecording();
+        List<String> statements;
+        try {
+            block.run();
+        } finally {
+            statements = StatementCounter.stopRecording();
+        }
+
+        List<String> explained = statements.stream()
+                .filter(sql -> EXPLAINED.contains(StatementType.of(sql)))
+                .collect(Collectors.toList());
+        if (explained.isEmpty()) {
+            throw new AssertionError("검증할 SELECT / UPDATE / DELETE 가 실행되지 않았습니다. (캐시에서 조회됐는지 확인)");
+        }
+
+        List<String> failures = new ArrayList<>();
+        for (String sql : explained) {
+            String plan = String.join("\n", jdbcTemplate.queryForList("explain " + sql, String.class));
+            Matcher matcher = TABLE_SCAN.matcher(plan);
+            while (matcher.find()) {
+                if (checked.contains(matcher.group(1).toUpperCase(Locale.ROOT))) {
+                    failures.add(sql + "\n  -> " + plan.replace("\n", "\n     "));
+                    break;
+                }
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new AssertionError("인덱스 없이 테이블 전체를 읽는 쿼리가 있습니다 " + checked + "\n" + String.join("\n", failures));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package study.datajpa.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static study.datajpa.support.QueryCountAssertions.assertSelectCount;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SnapshotConverterTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired MemberRepository memberRepository;
+    @Autowired MemberSnapshotLoader memberSnapshotLoader;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    public void pathVariableSnapshot() throws Exception {
+        // given
+        Member member = memberRepository.save(new Member("snapshot", 10));
+
+        // when, then
+        mockMvc.perform(get("/members3/{id}", member.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().string("snapshot"));
+
+        // 변경되면 캐시가 무효화된다.
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                memberRepository.findById(member.getId()).get().setUsername("snapshotChanged"));
+        mockMvc.perform(get("/members3/{id}", member.getId()))
+                .andExpect(content().string("snapshotChanged"));
+    }
+
+    @Test
+    public void batchLookup() throws Exception {
+        // given
+        Member member1 = memberRepository.save(new Member("batch1", 10));
+        Member member2 = memberRepository.save(new Member("batch2", 20));
+        Member member3 = memberRepository.save(new Member("batch3", 30));
+        List<Long> ids = List.of(member3.getId(), member1.getId(), member2.getId());
+
+        // when, then : 캐시에 없는 id 는 한번에, 이후에는 캐시에서
+        assertSelectCount(1, () -> memberSnapshotLoader.findAllById(ids));
+        assertSelectCount(0, () -> memberSnapshotLoader.findAllById(ids));
+
+        mockMvc.perform(get("/members3").param("ids", member3.getId() + "," + member1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("batch3"))
+                .andExpect(jsonPath("$[1]").value("batch1"));
+    }
+
+    @Test
+    public void chunkedByBatchFetchSize() {
+        // default_batch_fetch_size(100) 를 넘는 id 는 나눠서 조회 (없는 id 라 캐시에 남지 않는다)
+        List<Long> ids = LongStream.rangeClosed(-150, -1).boxed().collect(Collectors.toList());
+
+        assertSelectCount(2, () -> memberSnapshotLoader.findAllById(ids));
+    }
+
+    @Test
+    public void writableTransactionBypassesCache() {
+        // given
+        Member member = memberRepository.save(new Member("uncached", 10));
+        List<Long> ids = List.of(member.getId());
+
+        // when : 쓰기 트랜잭션 안에서 조회한 스냅샷은 캐시에 넣지 않는다.
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                assertSelectCount(1, () -> memberSnapshotLoader.findAllById(ids)));
+
+        // then
+        assertSelectCount(1, () -> memberSnapshotLoader.findAllById(ids));
+        assertSelectCount(0, () -> memberSnapshotLoader.findAllById(ids));
+    }
+}